@@ -1,9 +1,16 @@
 package com.baioretto.brewing;
 
+import com.baioretto.brewing.barrel.BarrelAutomation;
+import com.baioretto.brewing.barrel.BarrelIndex;
+import com.baioretto.brewing.barrel.BarrelSessions;
+import com.baioretto.brewing.barrel.BarrelStore;
+import com.baioretto.brewing.barrel.BrewingEngine;
+import com.baioretto.brewing.loader.ConfigWatcher;
 import com.baioretto.brewing.util.BrewingUtils;
 import lombok.AccessLevel;
 import lombok.experimental.Accessors;
 import lombok.experimental.FieldDefaults;
+import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
 @Accessors(fluent = true)
@@ -17,7 +24,19 @@ public final class Brewing extends JavaPlugin {
 
     @Override
     public void onEnable() {
+        BarrelStore.getInstance().open();
         BrewingUtils.load(true);
+        Bukkit.getScheduler().runTaskTimer(this, BrewingEngine.getInstance()::tick, 1L, 1L);
+    }
+
+    @Override
+    public void onDisable() {
+        ConfigWatcher.getInstance().stop();
+        BarrelSessions.getInstance().clear();
+        BarrelAutomation.getInstance().clear();
+        BrewingEngine.getInstance().clear();
+        BarrelStore.getInstance().close();
+        BarrelIndex.getInstance().clear();
     }
 
     public Brewing() {
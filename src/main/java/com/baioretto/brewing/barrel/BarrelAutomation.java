@@ -0,0 +1,143 @@
+package com.baioretto.brewing.barrel;
+
+import com.baioretto.brewing.Brewing;
+import com.baioretto.brewing.Container;
+import com.baioretto.brewing.enumerate.Type;
+import com.baioretto.brewing.registry.BrewingRegistry;
+import com.baioretto.brewing.util.LongHashSet;
+import com.google.common.collect.Maps;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lets hoppers feed ingredients into brewing barrels and take finished output out of them.
+ *
+ * <p>A move is dropped in constant time unless one side is a barrel inventory whose position is
+ * indexed by the {@link BarrelIndex}. Items are resolved to interned ids once and checked against
+ * the {@link com.baioretto.brewing.registry.RecipeIndex}: an idle barrel accepts ingredients, a
+ * barrel only gives away outputs. Barrels that received something are checked once on the next
+ * tick, however many items arrived, see {@link BrewingEngine#start(Block, Inventory, BrewingRegistry)}.
+ * Finished brews are emptied into the barrel by the engine when a hopper sits below. Only touched
+ * on the main thread.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BarrelAutomation {
+    /**
+     * world - packed positions of barrels fed this tick
+     */
+    private final Map<UUID, LongHashSet> fed = Maps.newHashMap();
+    private boolean flushScheduled;
+
+    // region metrics
+    private long accepted;
+    private long rejected;
+    private long started;
+    // endregion
+
+    public void move(InventoryMoveItemEvent event) {
+        Inventory source = event.getSource();
+        Inventory destination = event.getDestination();
+        boolean fromBarrel = source.getType() == InventoryType.BARREL;
+        boolean intoBarrel = destination.getType() == InventoryType.BARREL;
+        if (!fromBarrel && !intoBarrel) return;
+
+        Location from = fromBarrel ? brewingBarrel(source) : null;
+        Location into = intoBarrel ? brewingBarrel(destination) : null;
+        if (from == null && into == null) return;
+
+        BrewingRegistry registry = Container.registry();
+        int id = registry.itemResolver().resolve(event.getItem());
+
+        // only finished output leaves a brewing barrel, ingredients wait for the brew
+        if (from != null && (id < 0 || registry.itemKey(id).type() != Type.OUTPUT)) {
+            this.reject(event);
+            return;
+        }
+        if (into == null) {
+            accepted++;
+            return;
+        }
+
+        if (!registry.recipeIndex().isIngredient(id) || !BrewingEngine.getInstance().isIdle(into.getBlock())) {
+            this.reject(event);
+            return;
+        }
+        accepted++;
+        fed.computeIfAbsent(into.getWorld().getUID(), uid -> new LongHashSet(4)).add(BarrelIndex.pack(into.getBlockX(), into.getBlockY(), into.getBlockZ()));
+        if (flushScheduled) return;
+        flushScheduled = true;
+        Bukkit.getScheduler().runTask(Brewing.instance(), this::flush);
+    }
+
+    public long accepted() {
+        return accepted;
+    }
+
+    public long rejected() {
+        return rejected;
+    }
+
+    /**
+     * @return count of brews started from hopper fed barrels
+     */
+    public long started() {
+        return started;
+    }
+
+    public void clear() {
+        fed.clear();
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        BrewingRegistry registry = Container.registry();
+        BarrelIndex index = BarrelIndex.getInstance();
+        fed.forEach((uid, positions) -> {
+            World world = Bukkit.getWorld(uid);
+            if (world == null) return;
+            positions.forEach(position -> {
+                int x = BarrelIndex.unpackX(position), z = BarrelIndex.unpackZ(position);
+                if (!world.isChunkLoaded(x >> 4, z >> 4) || !index.isBarrel(world, position)) return;
+
+                Block block = world.getBlockAt(x, BarrelIndex.unpackY(position), z);
+                BarrelHandle barrel = BarrelHandle.of(block);
+                if (barrel == null) return;
+                if (BrewingEngine.getInstance().start(block, barrel.inventory(), registry) != null) started++;
+            });
+        });
+        fed.clear();
+    }
+
+    private void reject(InventoryMoveItemEvent event) {
+        event.setCancelled(true);
+        rejected++;
+    }
+
+    // the location of the barrel holding the inventory, null if it is not a brewing barrel
+    private static @Nullable Location brewingBarrel(Inventory inventory) {
+        Location location = inventory.getLocation();
+        if (location == null || location.getWorld() == null) return null;
+        return BarrelIndex.getInstance().isBarrel(location.getWorld(), BarrelIndex.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ())) ? location : null;
+    }
+
+    // region get instance
+    private static class AutomationInstance {
+        static final BarrelAutomation instance = new BarrelAutomation();
+    }
+
+    public static BarrelAutomation getInstance() {
+        return AutomationInstance.instance;
+    }
+    // endregion
+}
@@ -0,0 +1,122 @@
+package com.baioretto.brewing.barrel;
+
+import org.bukkit.Material;
+import org.bukkit.block.Barrel;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.inventory.Inventory;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Opens, closes and reads a barrel block without copying its block state on every call.
+ *
+ * <p>{@link Block#getState()} copies the tile entity including all 27 slots. Servers offering
+ * {@code getState(boolean)} hand out the live state instead. Elsewhere one copy is taken when the
+ * handle is created and kept for as long as the handle, a session holds one handle from open to
+ * close. The lid and the inventory of a placed barrel act on the world either way, never on the
+ * copy. A copy is never written back, it would overwrite what hoppers and other viewers moved
+ * since it was taken. Only touched on the main thread.
+ */
+public final class BarrelHandle {
+    private static final @Nullable MethodHandle LIVE_STATE = liveState();
+
+    private static long liveStates;
+    private static long snapshots;
+
+    private final Block block;
+    private final Barrel barrel;
+    private final boolean live;
+
+    private BarrelHandle(Block block, Barrel barrel, boolean live) {
+        this.block = block;
+        this.barrel = barrel;
+        this.live = live;
+    }
+
+    /**
+     * @return null if the block is no barrel
+     */
+    public static @Nullable BarrelHandle of(Block block) {
+        if (block.getType() != Material.BARREL) return null;
+        BlockState live = liveState(block);
+        if (live != null) return live instanceof Barrel barrel ? new BarrelHandle(block, barrel, true) : null;
+        snapshots++;
+        return block.getState() instanceof Barrel barrel ? new BarrelHandle(block, barrel, false) : null;
+    }
+
+    public Block block() {
+        return block;
+    }
+
+    public void open() {
+        barrel.open();
+    }
+
+    public void close() {
+        barrel.close();
+    }
+
+    public Inventory inventory() {
+        return barrel.getInventory();
+    }
+
+    /**
+     * Marks the barrel changed, so comparators read it again.
+     */
+    public void markChanged() {
+        if (live) {
+            barrel.update(true, false);
+            return;
+        }
+        // setting a slot of the world inventory marks the tile entity changed, the copy stays out of it
+        Inventory inventory = barrel.getInventory();
+        inventory.setItem(0, inventory.getItem(0));
+    }
+
+    /**
+     * @return true if the handle holds the live state, false if it holds a copy
+     */
+    public boolean isLive() {
+        return live;
+    }
+
+    /**
+     * @return count of handles created on the live state
+     */
+    public static long liveStates() {
+        return liveStates;
+    }
+
+    /**
+     * @return count of handles that had to copy the state
+     */
+    public static long snapshots() {
+        return snapshots;
+    }
+
+    /**
+     * @return null if the server has no live states, the caller copies instead
+     */
+    private static @Nullable BlockState liveState(Block block) {
+        if (LIVE_STATE == null) return null;
+        try {
+            BlockState state = (BlockState) LIVE_STATE.invokeExact(block, false);
+            liveStates++;
+            return state;
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    private static @Nullable MethodHandle liveState() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Block.class, "getState", MethodType.methodType(BlockState.class, boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
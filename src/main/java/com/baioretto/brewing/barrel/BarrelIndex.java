@@ -0,0 +1,214 @@
+package com.baioretto.brewing.barrel;
+
+import com.baioretto.brewing.enumerate.Tag;
+import com.baioretto.brewing.util.LongHashSet;
+import com.baioretto.brewing.util.LongObjectMap;
+import com.google.common.collect.Maps;
+import de.tr7zw.nbtapi.NBTChunk;
+import de.tr7zw.nbtapi.NBTCompound;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+/**
+ * Positions of the brewing barrels in every loaded chunk, only touched on the main thread.
+ *
+ * <p>A chunk is indexed from the barrel tags {@link de.tr7zw.nbtapi.NBTBlock} keeps in the chunk's
+ * persistent data when it loads and dropped when it unloads, places and breaks keep it current
+ * in between. Asking whether a block is a brewing barrel is then a single lookup of its packed
+ * position, without reading any nbt.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BarrelIndex {
+    private final Map<UUID, WorldIndex> worlds = Maps.newHashMap();
+
+    // region lookup
+    public boolean isBarrel(@Nullable Block block) {
+        if (block == null || block.getType() != Material.BARREL) return false;
+        WorldIndex index = worlds.get(block.getWorld().getUID());
+        return index != null && index.positions.contains(pack(block.getX(), block.getY(), block.getZ()));
+    }
+
+    /**
+     * @param action called with the packed position of every barrel indexed for the chunk
+     */
+    public void forEachInChunk(Chunk chunk, LongConsumer action) {
+        WorldIndex index = worlds.get(chunk.getWorld().getUID());
+        if (index == null) return;
+
+        LongHashSet positions = index.byChunk.get(chunkKey(chunk.getX(), chunk.getZ()));
+        if (positions != null) positions.forEach(action);
+    }
+
+    /**
+     * Same as {@link #isBarrel(Block)} without touching the block, for callers that know it is a barrel.
+     */
+    public boolean isBarrel(World world, long position) {
+        WorldIndex index = worlds.get(world.getUID());
+        return index != null && index.positions.contains(position);
+    }
+
+    public boolean hasBarrels(Chunk chunk) {
+        WorldIndex index = worlds.get(chunk.getWorld().getUID());
+        return index != null && index.byChunk.get(chunkKey(chunk.getX(), chunk.getZ())) != null;
+    }
+
+    public int size() {
+        int size = 0;
+        for (WorldIndex index : worlds.values()) size += index.positions.size();
+        return size;
+    }
+
+    public int chunks() {
+        int chunks = 0;
+        for (WorldIndex index : worlds.values()) chunks += index.byChunk.size();
+        return chunks;
+    }
+    // endregion
+
+    // region update
+    public void add(Block block) {
+        this.add(block.getWorld(), block.getX(), block.getY(), block.getZ());
+    }
+
+    private void add(World world, int x, int y, int z) {
+        long position = pack(x, y, z);
+        WorldIndex index = this.world(world);
+        index.positions.add(position);
+        long chunkKey = chunkKey(x >> 4, z >> 4);
+        LongHashSet chunk = index.byChunk.get(chunkKey);
+        if (chunk == null) {
+            chunk = new LongHashSet(4);
+            index.byChunk.put(chunkKey, chunk);
+        }
+        chunk.add(position);
+    }
+
+    public void remove(Block block) {
+        WorldIndex index = worlds.get(block.getWorld().getUID());
+        if (index == null) return;
+
+        long position = pack(block.getX(), block.getY(), block.getZ());
+        if (!index.positions.remove(position)) return;
+
+        long chunkKey = chunkKey(block.getX() >> 4, block.getZ() >> 4);
+        LongHashSet chunk = index.byChunk.get(chunkKey);
+        if (chunk == null) return;
+        chunk.remove(position);
+        if (chunk.isEmpty()) index.byChunk.remove(chunkKey);
+    }
+
+    /**
+     * Reads the barrel tags of a loaded chunk, replaces whatever was indexed for it.
+     */
+    public void indexChunk(Chunk chunk) {
+        this.unloadChunk(chunk);
+
+        NBTCompound blocks = new NBTChunk(chunk).getPersistentDataContainer().getCompound(BLOCKS_KEY);
+        if (blocks == null) return;
+
+        for (String key : blocks.getKeys()) {
+            NBTCompound data = blocks.getCompound(key);
+            if (data == null || !isBarrelTag(data)) continue;
+
+            // NBTBlock names the compound x_y_z
+            String[] coordinates = key.split("_");
+            if (coordinates.length != 3) continue;
+            try {
+                this.add(chunk.getWorld(), Integer.parseInt(coordinates[0]), Integer.parseInt(coordinates[1]), Integer.parseInt(coordinates[2]));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    public void unloadChunk(Chunk chunk) {
+        WorldIndex index = worlds.get(chunk.getWorld().getUID());
+        if (index == null) return;
+
+        LongHashSet chunkPositions = index.byChunk.remove(chunkKey(chunk.getX(), chunk.getZ()));
+        if (chunkPositions != null) chunkPositions.forEach(index.positions::remove);
+    }
+
+    public void unloadWorld(World world) {
+        worlds.remove(world.getUID());
+    }
+
+    /**
+     * Indexes the chunks that were loaded before the chunk listener was registered.
+     */
+    public void indexLoadedChunks() {
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                this.indexChunk(chunk);
+            }
+        }
+    }
+
+    public void clear() {
+        worlds.clear();
+    }
+    // endregion
+
+    // region helpers
+    public static boolean isBarrelTag(NBTCompound data) {
+        return data.hasKey(Tag.BARREL.key()) && Tag.BARREL.value().equals(data.getObject(Tag.BARREL.key(), Object.class));
+    }
+
+    /**
+     * Packs block coordinates into one long, 26 bits of x and z and 12 bits of y.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | (long) y & 0xFFFL;
+    }
+
+    public static int unpackX(long position) {
+        return (int) (position >> 38);
+    }
+
+    public static int unpackY(long position) {
+        return (int) (position << 52 >> 52);
+    }
+
+    public static int unpackZ(long position) {
+        return (int) (position << 26 >> 38);
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX & 0xFFFFFFFFL | ((long) chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+    private WorldIndex world(World world) {
+        return worlds.computeIfAbsent(world.getUID(), uid -> new WorldIndex());
+    }
+
+    private static class WorldIndex {
+        final LongHashSet positions = new LongHashSet(256);
+
+        /**
+         * chunk key - positions inside the chunk, used to drop a chunk when it unloads
+         */
+        final LongObjectMap<LongHashSet> byChunk = new LongObjectMap<>();
+    }
+    // endregion
+
+    private static final String BLOCKS_KEY = "blocks";
+
+    // region get instance
+    private static class IndexInstance {
+        static final BarrelIndex instance = new BarrelIndex();
+    }
+
+    public static BarrelIndex getInstance() {
+        return IndexInstance.instance;
+    }
+    // endregion
+}
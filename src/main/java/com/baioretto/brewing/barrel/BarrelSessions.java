@@ -0,0 +1,246 @@
+package com.baioretto.brewing.barrel;
+
+import com.baioretto.brewing.bean.OpenedBarrel;
+import com.baioretto.brewing.util.LongHashSet;
+import com.baioretto.brewing.util.LongObjectMap;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.HumanEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brewing barrels currently opened by at least one player, only touched on the main thread.
+ *
+ * <p>Sessions are grouped by world and keyed by the packed block position of
+ * {@link BarrelIndex#pack(int, int, int)}, next to the positions of every chunk holding one, so a
+ * chunk unload only looks at its own sessions. They end explicitly: when the last viewer closes
+ * the gui or quits, when the barrel breaks and when its chunk or world unloads. A world is let go
+ * once its last session ends or it unloads.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BarrelSessions {
+    /**
+     * sessions of every world with at least one
+     */
+    private final List<WorldSessions> worlds = new ArrayList<>();
+
+    // region lookup
+    public @Nullable OpenedBarrel get(Location location) {
+        WorldSessions world = this.world(location.getWorld(), false);
+        return world == null ? null : world.sessions.get(pack(location));
+    }
+
+    /**
+     * @return count of live sessions
+     */
+    public int size() {
+        int size = 0;
+        for (WorldSessions world : worlds) size += world.sessions.size();
+        return size;
+    }
+
+    /**
+     * @return count of players viewing a session
+     */
+    public int viewers() {
+        int[] viewers = {0};
+        for (WorldSessions world : worlds) {
+            world.sessions.forEach((position, openedBarrel) -> viewers[0] += openedBarrel.viewers().size());
+        }
+        return viewers[0];
+    }
+    // endregion
+
+    // region lifecycle
+    /**
+     * Adds the player to the session of the barrel, opening the barrel lid for the first viewer.
+     */
+    public OpenedBarrel open(Block block, HumanEntity player) {
+        long position = BarrelIndex.pack(block.getX(), block.getY(), block.getZ());
+        WorldSessions world = this.world(block.getWorld(), false);
+
+        OpenedBarrel openedBarrel = world == null ? null : world.sessions.get(position);
+        if (openedBarrel != null) {
+            if (!openedBarrel.viewers().contains(player)) openedBarrel.viewers(player);
+            return openedBarrel;
+        }
+
+        // the handle lives as long as the session, a block without a barrel has no lid to open
+        BarrelHandle barrel = BarrelHandle.of(block);
+        if (barrel == null) throw new IllegalStateException("Not a barrel: " + block);
+        barrel.open();
+        openedBarrel = new OpenedBarrel(barrel).viewers(player);
+        //noinspection ConstantConditions
+        this.world(block.getWorld(), true).put(position, openedBarrel);
+        return openedBarrel;
+    }
+
+    /**
+     * Removes the player from the session, the last viewer ends it and closes the barrel lid.
+     */
+    public void close(Location location, HumanEntity player) {
+        WorldSessions world = this.world(location.getWorld(), false);
+        if (world == null) return;
+
+        long position = pack(location);
+        OpenedBarrel openedBarrel = world.sessions.get(position);
+        if (openedBarrel == null) return;
+
+        openedBarrel.viewers().remove(player);
+        if (!openedBarrel.viewers().isEmpty()) return;
+
+        this.remove(world, position);
+        openedBarrel.barrel().close();
+    }
+
+    /**
+     * Ends the session of a broken barrel and closes the gui of every viewer.
+     */
+    public void remove(Block block) {
+        WorldSessions world = this.world(block.getWorld(), false);
+        if (world == null) return;
+
+        OpenedBarrel openedBarrel = this.remove(world, BarrelIndex.pack(block.getX(), block.getY(), block.getZ()));
+        if (openedBarrel == null) return;
+
+        new ArrayList<>(openedBarrel.viewers()).forEach(HumanEntity::closeInventory);
+    }
+
+    public void quit(HumanEntity player) {
+        for (WorldSessions world : new ArrayList<>(worlds)) {
+            List<Long> ended = new ArrayList<>();
+            world.sessions.forEach((position, openedBarrel) -> {
+                if (!openedBarrel.viewers().remove(player) || !openedBarrel.viewers().isEmpty()) return;
+                ended.add(position);
+                openedBarrel.barrel().close();
+            });
+            for (long position : ended) this.remove(world, position);
+        }
+    }
+
+    public void unloadChunk(Chunk chunk) {
+        WorldSessions world = this.world(chunk.getWorld(), false);
+        if (world == null) return;
+        LongHashSet positions = world.chunks.get(BarrelIndex.chunkKey(chunk.getX(), chunk.getZ()));
+        if (positions == null) return;
+
+        List<Long> ended = new ArrayList<>();
+        positions.forEach(ended::add);
+        for (long position : ended) {
+            OpenedBarrel openedBarrel = this.remove(world, position);
+            if (openedBarrel != null) new ArrayList<>(openedBarrel.viewers()).forEach(HumanEntity::closeInventory);
+        }
+    }
+
+    public void unloadWorld(World world) {
+        WorldSessions worldSessions = this.world(world, false);
+        if (worldSessions == null) return;
+
+        worlds.remove(worldSessions);
+        List<OpenedBarrel> ended = new ArrayList<>();
+        worldSessions.sessions.forEach((position, openedBarrel) -> ended.add(openedBarrel));
+        ended.forEach(openedBarrel -> new ArrayList<>(openedBarrel.viewers()).forEach(HumanEntity::closeInventory));
+    }
+
+    /**
+     * Drops the shared guis of every session, called after a new registry was published.
+     */
+    public void forgetGuis() {
+        for (WorldSessions world : worlds) {
+            world.sessions.forEach((position, openedBarrel) -> openedBarrel.forgetGuis());
+        }
+    }
+
+    public void clear() {
+        for (WorldSessions world : worlds) {
+            world.sessions.forEach((position, openedBarrel) -> openedBarrel.barrel().close());
+        }
+        worlds.clear();
+    }
+    // endregion
+
+    // region helpers
+    private @Nullable WorldSessions world(@Nullable World world, boolean create) {
+        if (world == null) return null;
+
+        // few worlds, an identity scan beats hashing the uuid
+        for (WorldSessions worldSessions : worlds) {
+            if (worldSessions.world == world) return worldSessions;
+        }
+        if (!create) return null;
+
+        WorldSessions worldSessions = new WorldSessions(world);
+        worlds.add(worldSessions);
+        return worldSessions;
+    }
+
+    // ends the session at the position, the world is let go with its last session
+    private @Nullable OpenedBarrel remove(WorldSessions world, long position) {
+        OpenedBarrel openedBarrel = world.sessions.remove(position);
+        if (openedBarrel == null) return null;
+
+        long chunkKey = chunkKey(position);
+        LongHashSet chunk = world.chunks.get(chunkKey);
+        if (chunk != null) {
+            chunk.remove(position);
+            if (chunk.isEmpty()) world.chunks.remove(chunkKey);
+        }
+        if (world.sessions.isEmpty()) worlds.remove(world);
+        return openedBarrel;
+    }
+
+    private static long pack(Location location) {
+        return BarrelIndex.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    private static long chunkKey(long position) {
+        return BarrelIndex.chunkKey(BarrelIndex.unpackX(position) >> 4, BarrelIndex.unpackZ(position) >> 4);
+    }
+
+    private static final class WorldSessions {
+        final World world;
+
+        /**
+         * packed position - session
+         */
+        final LongObjectMap<OpenedBarrel> sessions = new LongObjectMap<>();
+
+        /**
+         * chunk key - positions of the sessions inside the chunk
+         */
+        final LongObjectMap<LongHashSet> chunks = new LongObjectMap<>();
+
+        WorldSessions(World world) {
+            this.world = world;
+        }
+
+        void put(long position, OpenedBarrel openedBarrel) {
+            sessions.put(position, openedBarrel);
+            long chunkKey = chunkKey(position);
+            LongHashSet chunk = chunks.get(chunkKey);
+            if (chunk == null) {
+                chunk = new LongHashSet(4);
+                chunks.put(chunkKey, chunk);
+            }
+            chunk.add(position);
+        }
+    }
+    // endregion
+
+    // region get instance
+    private static class SessionsInstance {
+        static final BarrelSessions instance = new BarrelSessions();
+    }
+
+    public static BarrelSessions getInstance() {
+        return SessionsInstance.instance;
+    }
+    // endregion
+}
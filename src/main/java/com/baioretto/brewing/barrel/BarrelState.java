@@ -0,0 +1,54 @@
+package com.baioretto.brewing.barrel;
+
+import com.baioretto.brewing.bean.RecipeProperties;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * What a brewing barrel is brewing, nothing else is stored, progress and yield are derived on demand.
+ *
+ * @param recipe      recipe id, ids survive reloads where interned item ids do not
+ * @param start       world full time the brew started at
+ * @param seed        seed of the yield roll, so every query of one brew agrees
+ * @param amplify     summed amplify of the yeasts and extras put in
+ * @param ingredients keys ({@code type:id}) of every item put in, one entry per item
+ */
+public record BarrelState(String recipe, long start, long seed, double amplify, List<String> ingredients) {
+    public static final long TICKS_PER_DAY = 24000L;
+
+    public BarrelState {
+        ingredients = List.copyOf(ingredients);
+    }
+
+    public long duration(RecipeProperties recipe) {
+        return Math.max(0L, recipe.cycle()) * TICKS_PER_DAY;
+    }
+
+    public long remaining(RecipeProperties recipe, long now) {
+        return Math.max(0L, start + duration(recipe) - now);
+    }
+
+    /**
+     * @return 0 to 1
+     */
+    public double progress(RecipeProperties recipe, long now) {
+        long duration = duration(recipe);
+        if (duration == 0L) return 1D;
+        return Math.min(1D, Math.max(0D, (double) (now - start) / duration));
+    }
+
+    public boolean complete(RecipeProperties recipe, long now) {
+        return remaining(recipe, now) == 0L;
+    }
+
+    /**
+     * @return a roll between min and max yield scaled by {@code 1 + amplify}, at least 1
+     */
+    public int yield(RecipeProperties recipe) {
+        int min = Math.max(1, recipe.minYield());
+        int max = Math.max(min, recipe.maxYield());
+        int rolled = min + new Random(seed).nextInt(max - min + 1);
+        return Math.max(1, (int) Math.floor(rolled * (1D + amplify)));
+    }
+}
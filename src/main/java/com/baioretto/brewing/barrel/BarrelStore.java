@@ -0,0 +1,587 @@
+package com.baioretto.brewing.barrel;
+
+import com.baioretto.brewing.Brewing;
+import com.baioretto.brewing.util.LongObjectMap;
+import com.google.common.collect.Maps;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Persists {@link BarrelState}s in an append-only journal, written and read behind the main thread.
+ *
+ * <p><pre>
+ *  header  int magic, int version
+ *  record  int length, int crc32 of the payload, payload
+ *  payload byte op, long world most, long world least, long position, [put: state]
+ *  </pre>
+ * A single io thread owns the journal. It appends queued changes in batches and forces them to
+ * disk, and it serves chunk loads in queue order, so a load always sees every change queued
+ * before it. States are not kept in memory, only an offset index of the latest record of every
+ * barrel, grouped by chunk. Once the journal holds far more records than live barrels it is
+ * rewritten from the index and swapped atomically. When the thread starts, the journal is
+ * replayed until the first torn or corrupted record and truncated there, a crash mid-write loses
+ * at most the batch being written.
+ *
+ * <p>A failing write or read reopens the journal, replays it again and retries the batch it was
+ * on, changes are whole states so a record written twice does no harm. Once the retries are used
+ * up the store gives up, changes are dropped and every load is answered with an empty map so
+ * chunks do not wait for it forever.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BarrelStore {
+    private final Logger logger = Brewing.instance().getLogger();
+
+    private final File journalFile = new File(Brewing.instance().getDataFolder(), "data/barrels.journal");
+
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger indexed = new AtomicInteger();
+    private volatile boolean failed;
+    private Thread thread;
+
+    // region io thread state
+    /**
+     * world - chunk key - packed position - offset of the latest put record, only touched by the io thread
+     */
+    private final Map<UUID, LongObjectMap<LongObjectMap<Long>>> offsets = Maps.newHashMap();
+    /**
+     * tasks taken from the queue and not done yet, kept over a retry, a served load is set to null
+     */
+    private final List<Object> batch = new ArrayList<>();
+
+    private FileChannel writeChannel;
+    private FileChannel readChannel;
+    private long records;
+    /**
+     * failed attempts in a row, reset once a batch is written
+     */
+    private int attempts;
+    // endregion
+
+    // region main thread
+    public void put(UUID world, long position, BarrelState state) {
+        if (failed) return;
+        queue.add(new Change(world, position, state));
+    }
+
+    public void remove(UUID world, long position) {
+        if (failed) return;
+        queue.add(new Change(world, position, null));
+    }
+
+    /**
+     * Reads the states of one chunk on the io thread and hands them to the callback on the main thread.
+     *
+     * @param callback gets packed position - state, empty when nothing is stored for the chunk
+     */
+    public void load(UUID world, long chunkKey, Consumer<LongObjectMap<BarrelState>> callback) {
+        queue.add(new Load(world, chunkKey, callback, false));
+        // the io thread may have drained the queue right before the load was added
+        if (failed) this.drain();
+    }
+
+    /**
+     * Reads the states of one chunk like {@link #load} but waits for them on the calling thread.
+     * Everything queued before is served first, so this is only for when too many chunks wait already.
+     *
+     * @return packed position - state, null if the io thread did not answer in time
+     */
+    public @Nullable LongObjectMap<BarrelState> loadNow(UUID world, long chunkKey) {
+        CompletableFuture<LongObjectMap<BarrelState>> states = new CompletableFuture<>();
+        queue.add(new Load(world, chunkKey, states::complete, true));
+        if (failed) this.drain();
+        try {
+            return states.get(LOAD_NOW_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return count of barrels with a stored state, including unloaded chunks
+     */
+    public int size() {
+        return indexed.get();
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * @return true once the journal could not be used even after retrying, nothing is saved anymore
+     */
+    public boolean failed() {
+        return failed;
+    }
+    // endregion
+
+    // region open and close
+    /**
+     * Starts the io thread, which replays the journal before it serves anything queued.
+     */
+    public synchronized void open() {
+        if (thread != null) return;
+        thread = new Thread(this::run, "Brewing-BarrelStore");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Lets the io thread flush everything queued and waits for it, called on disable.
+     */
+    public synchronized void close() {
+        if (thread == null) return;
+        queue.add(STOP);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) logger.warning("The barrel journal writer did not finish in time, the last changes may be lost");
+        thread = null;
+    }
+    // endregion
+
+    // region io thread
+    private void run() {
+        while (true) {
+            try {
+                this.reopen();
+                this.serve();
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                if (++attempts > MAX_ATTEMPTS) {
+                    this.fail(e);
+                    return;
+                }
+                logger.log(Level.WARNING, String.format("Failed to use the barrel journal, reopening it (attempt %d of %d)", attempts, MAX_ATTEMPTS), e);
+            } finally {
+                closeQuietly(writeChannel);
+                closeQuietly(readChannel);
+            }
+
+            try {
+                Thread.sleep(RETRY_DELAY * attempts);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.fail(null);
+                return;
+            }
+        }
+    }
+
+    // the index is rebuilt from the journal, a batch that failed halfway may have left a torn tail
+    private void reopen() throws IOException {
+        offsets.clear();
+        indexed.set(0);
+        records = 0;
+        Files.createDirectories(journalFile.getParentFile().toPath());
+        this.recover();
+        writeChannel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        readChannel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ);
+    }
+
+    private void fail(@Nullable IOException cause) {
+        failed = true;
+        logger.log(Level.SEVERE, "Failed to use the barrel journal, brewing progress is no longer saved", cause);
+        for (Object task : batch) {
+            if (task instanceof Load load) this.answer(load, new LongObjectMap<>());
+        }
+        batch.clear();
+        this.drain();
+    }
+
+    // answers the loads still queued with nothing, changes are dropped
+    private void drain() {
+        Object task;
+        while ((task = queue.poll()) != null) {
+            if (task instanceof Load load) this.answer(load, new LongObjectMap<>());
+        }
+    }
+
+    private void serve() throws InterruptedException, IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        boolean stopping = false;
+        while (!stopping) {
+            // a batch left by a failed attempt is retried before anything new is taken
+            if (batch.isEmpty()) batch.add(queue.take());
+            // keep collecting for a moment so a burst of changes becomes one write and one force, loads do not wait
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BATCH_WINDOW);
+            Object next;
+            while (batch.size() < MAX_BATCH && !(batch.get(batch.size() - 1) instanceof Load)
+                    && (next = queue.poll(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) != null) {
+                batch.add(next);
+            }
+
+            long end = writeChannel.size();
+            for (int i = 0; i < batch.size(); i++) {
+                Object task = batch.get(i);
+                if (task == STOP) {
+                    stopping = true;
+                } else if (task instanceof Change change) {
+                    this.index(change, end + bytes.size());
+                    writeRecord(out, change.encode());
+                    records++;
+                } else if (task instanceof Load load) {
+                    // the changes before the load have to be readable first
+                    end += this.flush(bytes, false);
+                    this.serve(load);
+                    batch.set(i, null);
+                }
+            }
+            this.flush(bytes, true);
+            batch.clear();
+            attempts = 0;
+
+            if (records > COMPACT_MIN_RECORDS && records > (long) indexed.get() * COMPACT_RATIO) this.compact();
+        }
+    }
+
+    private void serve(Load load) {
+        LongObjectMap<BarrelState> states = new LongObjectMap<>();
+        LongObjectMap<LongObjectMap<Long>> chunks = offsets.get(load.world());
+        LongObjectMap<Long> chunk = chunks == null ? null : chunks.get(load.chunkKey());
+        if (chunk != null) {
+            chunk.forEach((position, offset) -> {
+                try {
+                    Change change = this.readRecord(readChannel, offset);
+                    if (change != null && change.state != null) states.put(position, change.state);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Failed to read a barrel state from the journal", e);
+                }
+            });
+        }
+
+        this.answer(load, states);
+    }
+
+    private void answer(Load load, LongObjectMap<BarrelState> states) {
+        // the main thread is blocked on it, a scheduled task would never run
+        if (load.direct()) {
+            load.callback().accept(states);
+            return;
+        }
+        try {
+            Bukkit.getScheduler().runTask(Brewing.instance(), () -> load.callback().accept(states));
+        } catch (RuntimeException ignored) {
+            // the plugin is disabling, nobody waits for the load anymore
+        }
+    }
+
+    /**
+     * @return count of bytes written
+     */
+    private int flush(ByteArrayOutputStream bytes, boolean force) throws IOException {
+        int size = bytes.size();
+        if (size == 0) return 0;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) writeChannel.write(buffer);
+        if (force) writeChannel.force(false);
+        bytes.reset();
+        return size;
+    }
+
+    private void index(Change change, long offset) {
+        LongObjectMap<LongObjectMap<Long>> chunks = offsets.computeIfAbsent(change.world, uid -> new LongObjectMap<>());
+        long chunkKey = BarrelIndex.chunkKey(BarrelIndex.unpackX(change.position) >> 4, BarrelIndex.unpackZ(change.position) >> 4);
+        LongObjectMap<Long> chunk = chunks.get(chunkKey);
+
+        if (change.state == null) {
+            if (chunk == null || chunk.remove(change.position) == null) return;
+            indexed.decrementAndGet();
+            if (chunk.isEmpty()) chunks.remove(chunkKey);
+            return;
+        }
+
+        if (chunk == null) {
+            chunk = new LongObjectMap<>(4);
+            chunks.put(chunkKey, chunk);
+        }
+        if (chunk.put(change.position, offset) == null) indexed.incrementAndGet();
+    }
+
+    // rewrite the live records only, the old journal stays in place until the new one is complete
+    private void compact() throws IOException {
+        File temp = new File(journalFile.getParentFile(), journalFile.getName() + ".tmp");
+        List<Change> live = new ArrayList<>();
+        for (LongObjectMap<LongObjectMap<Long>> chunks : offsets.values()) {
+            chunks.forEach((chunkKey, chunk) -> chunk.forEach((position, offset) -> {
+                try {
+                    Change change = this.readRecord(readChannel, offset);
+                    if (change != null && change.state != null) live.add(change);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Failed to read a barrel state while compacting the journal", e);
+                }
+            }));
+        }
+
+        writeJournal(temp, live);
+        closeQuietly(writeChannel);
+        closeQuietly(readChannel);
+        Files.move(temp.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writeChannel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        readChannel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ);
+
+        offsets.clear();
+        indexed.set(0);
+        long offset = HEADER_SIZE;
+        for (Change change : live) {
+            this.index(change, offset);
+            offset += RECORD_HEADER_SIZE + change.size;
+        }
+        records = live.size();
+    }
+    // endregion
+
+    // region recover
+    private void recover() throws IOException {
+        if (!journalFile.isFile()) {
+            writeJournal(journalFile, List.of());
+            return;
+        }
+
+        long length = journalFile.length();
+        long valid = replay(journalFile, (change, offset) -> {
+            this.index(change, offset);
+            records++;
+        });
+        if (valid < 0) {
+            // not a journal we can read, keep it aside instead of overwriting it
+            File corrupt = new File(journalFile.getParentFile(), journalFile.getName() + ".corrupt");
+            logger.warning("The barrel journal has an unknown header, moved it to " + corrupt.getName());
+            Files.move(journalFile.toPath(), corrupt.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            writeJournal(journalFile, List.of());
+            return;
+        }
+        if (valid < length) {
+            logger.warning(String.format("The barrel journal has a torn or corrupted tail, dropped %d bytes after %d records", length - valid, records));
+        }
+    }
+
+    /**
+     * Hands every record of the journal to the consumer, up to the first torn or corrupted one, and
+     * truncates the journal there.
+     *
+     * @param consumer gets every record and its offset
+     * @return length of the journal after the truncation, -1 if it has an unknown header and was left alone
+     */
+    static long replay(File file, ObjLongConsumer<Change> consumer) throws IOException {
+        long length = file.length();
+        long valid = HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (length < HEADER_SIZE || in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return -1L;
+
+            Change change;
+            while ((change = readRecord(in, length - valid)) != null) {
+                consumer.accept(change, valid);
+                valid += RECORD_HEADER_SIZE + change.size;
+            }
+        }
+
+        if (valid < length) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * @param available bytes left in the journal
+     * @return null at the end of the journal or at the first record that is torn or fails its checksum
+     */
+    private static @Nullable Change readRecord(DataInputStream in, long available) throws IOException {
+        if (available < RECORD_HEADER_SIZE) return null;
+        int length = in.readInt();
+        int crc = in.readInt();
+        if (length <= 0 || length > MAX_RECORD_SIZE || length > available - RECORD_HEADER_SIZE) return null;
+
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return verify(payload, crc);
+    }
+
+    private @Nullable Change readRecord(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, header, offset);
+        int length = header.getInt(0);
+        if (length <= 0 || length > MAX_RECORD_SIZE) return null;
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, offset + RECORD_HEADER_SIZE);
+        return verify(payload.array(), header.getInt(Integer.BYTES));
+    }
+
+    private static @Nullable Change verify(byte[] payload, int crc) {
+        CRC32 checksum = new CRC32();
+        checksum.update(payload);
+        if ((int) checksum.getValue() != crc) return null;
+
+        try {
+            return Change.decode(payload);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+    // endregion
+
+    // region files
+    static void writeJournal(File file, List<Change> changes) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file); DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            for (Change change : changes) writeRecord(out, change.encode());
+            out.flush();
+            stream.getFD().sync();
+        }
+    }
+
+    static void writeRecord(DataOutputStream out, byte[] payload) throws IOException {
+        CRC32 checksum = new CRC32();
+        checksum.update(payload);
+        out.writeInt(payload.length);
+        out.writeInt((int) checksum.getValue());
+        out.write(payload);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) throw new EOFException();
+        }
+    }
+
+    private static void closeQuietly(@Nullable FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+    // endregion
+
+    // region records
+    /**
+     * @param direct true to call back on the io thread, for a caller waiting on it
+     */
+    private record Load(UUID world, long chunkKey, Consumer<LongObjectMap<BarrelState>> callback, boolean direct) {
+    }
+
+    /**
+     * One journal record, a null state removes the barrel.
+     */
+    static final class Change {
+        final UUID world;
+        final long position;
+        final @Nullable BarrelState state;
+        int size;
+
+        Change(UUID world, long position, @Nullable BarrelState state) {
+            this.world = world;
+            this.position = position;
+            this.state = state;
+        }
+
+        byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(state == null ? OP_REMOVE : OP_PUT);
+            out.writeLong(world.getMostSignificantBits());
+            out.writeLong(world.getLeastSignificantBits());
+            out.writeLong(position);
+            if (state != null) {
+                out.writeUTF(state.recipe());
+                out.writeLong(state.start());
+                out.writeLong(state.seed());
+                out.writeDouble(state.amplify());
+                out.writeInt(state.ingredients().size());
+                for (String ingredient : state.ingredients()) out.writeUTF(ingredient);
+            }
+            size = bytes.size();
+            return bytes.toByteArray();
+        }
+
+        static Change decode(byte[] payload) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            byte op = in.readByte();
+            UUID world = new UUID(in.readLong(), in.readLong());
+            long position = in.readLong();
+
+            BarrelState state = null;
+            if (op == OP_PUT) {
+                String recipe = in.readUTF();
+                long start = in.readLong();
+                long seed = in.readLong();
+                double amplify = in.readDouble();
+                int count = in.readInt();
+                List<String> ingredients = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) ingredients.add(in.readUTF());
+                state = new BarrelState(recipe, start, seed, amplify, ingredients);
+            } else if (op != OP_REMOVE) {
+                throw new IOException("Unknown op " + op);
+            }
+
+            Change change = new Change(world, position, state);
+            change.size = payload.length;
+            return change;
+        }
+    }
+    // endregion
+
+    private static final Object STOP = new Object();
+
+    private static final int MAGIC = 0x4252424A;
+    private static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES * 2;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private static final long BATCH_WINDOW = 50L;
+    private static final int MAX_BATCH = 512;
+    private static final int COMPACT_MIN_RECORDS = 4096;
+    private static final int COMPACT_RATIO = 4;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY = 1000L;
+    private static final long LOAD_NOW_TIMEOUT = 500L;
+
+    // region get instance
+    private static class StoreInstance {
+        static final BarrelStore instance = new BarrelStore();
+    }
+
+    public static BarrelStore getInstance() {
+        return StoreInstance.instance;
+    }
+    // endregion
+}
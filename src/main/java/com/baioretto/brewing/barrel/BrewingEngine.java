@@ -0,0 +1,658 @@
+package com.baioretto.brewing.barrel;
+
+import com.baioretto.brewing.Container;
+import com.baioretto.brewing.bean.RecipeProperties;
+import com.baioretto.brewing.registry.BrewingRegistry;
+import com.baioretto.brewing.util.LongHashSet;
+import com.baioretto.brewing.util.LongObjectMap;
+import com.baioretto.brewing.util.TimingWheel;
+import com.google.common.collect.Maps;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Brews without ticking: a barrel only stores when it started and what it brews, see {@link BarrelState}.
+ *
+ * <p>Progress, completion and yield are computed from the world's full time whenever a barrel is
+ * opened or queried, so the cost per server tick is zero however many barrels are brewing. States
+ * are persisted by the {@link BarrelStore} and held here only while their chunk is loaded: a chunk
+ * with indexed barrels is read asynchronously when it loads and evicted when it unloads. At most
+ * {@link #PREFETCH_LIMIT} chunk reads are in flight, the rest wait in a queue of at most
+ * {@link #WAITING_LIMIT} chunks. When it overflows, chunks that unloaded while waiting are dropped
+ * from it first, and if it is still full the oldest chunk is read synchronously on the main thread.
+ * A synchronous read that does not come back in time leaves that chunk waiting.
+ *
+ * <p>To tell nearby players when a brew finishes, the deadline of every brewing barrel in a loaded
+ * chunk sits in a {@link TimingWheel} advanced once per tick, nothing polls the barrels. Only
+ * touched on the main thread.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BrewingEngine {
+    /**
+     * world - packed position - state, only loaded chunks
+     */
+    private final Map<UUID, LongObjectMap<BarrelState>> states = Maps.newHashMap();
+
+    /**
+     * world - chunk key - chunk whose states are not read yet
+     */
+    private final Map<UUID, LongObjectMap<PendingChunk>> pending = Maps.newHashMap();
+    private final Deque<PendingChunk> waiting = new ArrayDeque<>();
+    private int inflight;
+
+    private final TimingWheel<Completion> wheel = new TimingWheel<>(0L);
+    /**
+     * world - packed position - completion scheduled in the wheel
+     */
+    private final Map<UUID, LongObjectMap<TimingWheel.Timeout<Completion>>> completions = Maps.newHashMap();
+
+    // region metrics
+    private long chunkLoads;
+    private long missedLoads;
+    private long lateLoads;
+    private long syncLoads;
+    // endregion
+
+    // region query
+    public @Nullable BarrelState state(Block block) {
+        LongObjectMap<BarrelState> worldStates = states.get(block.getWorld().getUID());
+        return worldStates == null ? null : worldStates.get(BarrelIndex.pack(block.getX(), block.getY(), block.getZ()));
+    }
+
+    public int size() {
+        int size = 0;
+        for (LongObjectMap<BarrelState> worldStates : states.values()) size += worldStates.size();
+        return size;
+    }
+
+    /**
+     * @return count of loaded chunks whose states are being read or wait to be read
+     */
+    public int loading() {
+        int loading = 0;
+        for (LongObjectMap<PendingChunk> chunks : pending.values()) loading += chunks.size();
+        return loading;
+    }
+
+    public int inflight() {
+        return inflight;
+    }
+
+    public int scheduled() {
+        return wheel.size();
+    }
+
+    /**
+     * @return count of chunk reads that were installed
+     */
+    public long chunkLoads() {
+        return chunkLoads;
+    }
+
+    /**
+     * @return count of barrel interactions that came before the states of their chunk
+     */
+    public long missedLoads() {
+        return missedLoads;
+    }
+
+    /**
+     * @return count of chunk reads that finished after their chunk unloaded
+     */
+    public long lateLoads() {
+        return lateLoads;
+    }
+
+    /**
+     * @return count of chunk reads done on the main thread because the queue was full
+     */
+    public long syncLoads() {
+        return syncLoads;
+    }
+
+    /**
+     * Tells the player how far the barrel is, or hands out the output of a finished brew.
+     *
+     * @return false if the barrel is idle and the recipe gui should open
+     */
+    public boolean interact(HumanEntity player, Block block) {
+        if (this.isLoading(block)) {
+            missedLoads++;
+            player.sendMessage(ChatColor.GRAY + "This barrel is still loading, try again in a moment.");
+            return true;
+        }
+
+        BarrelState state = this.state(block);
+        if (state == null) return false;
+
+        RecipeProperties recipe = Container.registry().recipe(state.recipe());
+        if (recipe == null) {
+            this.finish(block);
+            player.sendMessage(ChatColor.RED + "The recipe " + state.recipe() + " of this barrel no longer exists, the barrel was emptied.");
+            return true;
+        }
+
+        long now = block.getWorld().getFullTime();
+        if (!state.complete(recipe, now)) {
+            long remaining = state.remaining(recipe, now);
+            player.sendMessage(String.format("%s%s %sis brewing, %d%% done, %s left.", ChatColor.RESET, displayName(recipe), ChatColor.GRAY, (int) (state.progress(recipe, now) * 100D), formatTicks(remaining)));
+            return true;
+        }
+
+        this.deliver(player, block, recipe, state);
+        return true;
+    }
+    // endregion
+
+    // region start and finish
+    /**
+     * Takes the substrates and containers of the recipe from the player, plus whatever yeasts and
+     * extras they carry, and starts brewing in the barrel.
+     *
+     * @return true if the brew started
+     */
+    public boolean start(HumanEntity player, Block block, RecipeProperties recipe, BrewingRegistry registry) {
+        if (!BarrelIndex.getInstance().isBarrel(block)) {
+            player.sendMessage(ChatColor.RED + "This barrel no longer exists.");
+            return false;
+        }
+        if (this.isLoading(block)) {
+            missedLoads++;
+            player.sendMessage(ChatColor.GRAY + "This barrel is still loading, try again in a moment.");
+            return false;
+        }
+        if (this.state(block) != null) {
+            player.sendMessage(ChatColor.RED + "This barrel is already brewing.");
+            return false;
+        }
+
+        Reservation reservation = new Reservation(player.getInventory(), registry);
+        List<String> ingredients = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (int[] ids : new int[][]{recipe.substrates(), recipe.containers()}) {
+            for (int id : ids) {
+                if (reservation.take(id)) ingredients.add(registry.itemKey(id).toString());
+                else missing.add(registry.itemKey(id).id());
+            }
+        }
+        if (!missing.isEmpty()) {
+            player.sendMessage(ChatColor.RED + "Missing ingredients: " + String.join(", ", missing));
+            return false;
+        }
+
+        double amplify = reservation.takeOptional(recipe, ingredients);
+        reservation.commit();
+        BarrelState state = this.begin(block, recipe, amplify, ingredients);
+        player.sendMessage(String.format("%s%s %sstarted brewing, ready in %s.", ChatColor.RESET, displayName(recipe), ChatColor.GRAY, formatTicks(state.duration(recipe))));
+        return true;
+    }
+
+    /**
+     * Starts the first recipe whose substrates and containers were fed into the barrel inventory,
+     * by hoppers, taking one of each plus every yeast and extra of the recipe found there. Items
+     * are matched by their interned id, see {@link com.baioretto.brewing.registry.ItemResolver}.
+     *
+     * Satisfied recipes are tried in catalog order, the first one that can be taken starts.
+     *
+     * @return the recipe that started, null if the barrel is busy or nothing is satisfied yet
+     */
+    public @Nullable RecipeProperties start(Block block, Inventory inventory, BrewingRegistry registry) {
+        if (!this.isIdle(block)) return null;
+
+        Reservation reservation = new Reservation(inventory, registry);
+        List<RecipeProperties> satisfied = registry.recipeIndex().recipesSatisfiedBy(reservation.ids, reservation.left);
+        if (satisfied.isEmpty()) return null;
+
+        for (RecipeProperties recipe : satisfied) {
+            List<String> ingredients = this.takeRequired(reservation, recipe, registry);
+            if (ingredients == null) {
+                reservation.reset();
+                continue;
+            }
+            double amplify = reservation.takeOptional(recipe, ingredients);
+            reservation.commit();
+            this.begin(block, recipe, amplify, ingredients);
+            return recipe;
+        }
+        return null;
+    }
+
+    // one of every substrate and container, null if any of them is missing
+    private @Nullable List<String> takeRequired(Reservation reservation, RecipeProperties recipe, BrewingRegistry registry) {
+        List<String> ingredients = new ArrayList<>();
+        for (int[] required : new int[][]{recipe.substrates(), recipe.containers()}) {
+            for (int id : required) {
+                if (!reservation.take(id)) return null;
+                ingredients.add(registry.itemKey(id).toString());
+            }
+        }
+        return ingredients;
+    }
+
+    private BarrelState begin(Block block, RecipeProperties recipe, double amplify, List<String> ingredients) {
+        BarrelState state = new BarrelState(recipe.id(), block.getWorld().getFullTime(), ThreadLocalRandom.current().nextLong(), amplify, ingredients);
+        long position = BarrelIndex.pack(block.getX(), block.getY(), block.getZ());
+        this.put(block, state);
+        this.schedule(block.getWorld(), position, state);
+        BarrelStore.getInstance().put(block.getWorld().getUID(), position, state);
+        return state;
+    }
+
+    /**
+     * Forgets the brew of the barrel, in memory and in the store.
+     */
+    public void finish(Block block) {
+        long position = BarrelIndex.pack(block.getX(), block.getY(), block.getZ());
+        LongObjectMap<BarrelState> worldStates = states.get(block.getWorld().getUID());
+        if (worldStates != null) worldStates.remove(position);
+        this.cancel(block.getWorld().getUID(), position);
+        // a read in flight would bring the state back
+        PendingChunk chunk = this.pendingChunk(block.getWorld().getUID(), block.getX() >> 4, block.getZ() >> 4);
+        if (chunk != null) chunk.finished.add(position);
+        BarrelStore.getInstance().remove(block.getWorld().getUID(), position);
+    }
+
+    private void deliver(HumanEntity player, Block block, RecipeProperties recipe, BarrelState state) {
+        ItemStack output = Container.registry().itemStack(recipe.output());
+        this.finish(block);
+        if (output == null) {
+            player.sendMessage(ChatColor.RED + "The output of " + recipe.id() + " no longer exists, the barrel was emptied.");
+            return;
+        }
+
+        int yield = state.yield(recipe);
+        // whatever does not fit is dropped on top of the barrel
+        Location drop = block.getLocation().add(0.5D, 1D, 0.5D);
+        player.getInventory().addItem(stacks(output, yield)).values().forEach(stack -> block.getWorld().dropItemNaturally(drop, stack));
+        player.sendMessage(String.format("%s%s %sfinished brewing, you got %d.", ChatColor.RESET, displayName(recipe), ChatColor.GRAY, yield));
+    }
+    // endregion
+
+    // region chunk lifecycle
+    /**
+     * Queues a read of the states of a chunk that was just indexed, chunks without barrels are skipped.
+     */
+    public void loadChunk(Chunk chunk) {
+        if (!BarrelIndex.getInstance().hasBarrels(chunk)) return;
+
+        UUID world = chunk.getWorld().getUID();
+        long chunkKey = BarrelIndex.chunkKey(chunk.getX(), chunk.getZ());
+        PendingChunk pendingChunk = new PendingChunk(world, chunk.getX(), chunk.getZ());
+        pending.computeIfAbsent(world, uid -> new LongObjectMap<>()).put(chunkKey, pendingChunk);
+        waiting.add(pendingChunk);
+        if (waiting.size() > WAITING_LIMIT) this.overflow();
+        this.prefetch();
+    }
+
+    /**
+     * Evicts the states of the chunk, they are already persisted.
+     */
+    public void unloadChunk(Chunk chunk) {
+        UUID world = chunk.getWorld().getUID();
+        // a queued or running read is dropped or counted late once it finishes
+        LongObjectMap<PendingChunk> chunks = pending.get(world);
+        if (chunks != null && chunks.remove(BarrelIndex.chunkKey(chunk.getX(), chunk.getZ())) != null && chunks.isEmpty()) pending.remove(world);
+
+        LongObjectMap<BarrelState> worldStates = states.get(world);
+        if (worldStates == null) return;
+        BarrelIndex.getInstance().forEachInChunk(chunk, position -> {
+            if (worldStates.remove(position) != null) this.cancel(world, position);
+        });
+        if (worldStates.isEmpty()) states.remove(world);
+    }
+
+    public void unloadWorld(World world) {
+        states.remove(world.getUID());
+        pending.remove(world.getUID());
+        LongObjectMap<TimingWheel.Timeout<Completion>> worldCompletions = completions.remove(world.getUID());
+        if (worldCompletions != null) worldCompletions.forEach((position, timeout) -> timeout.cancel());
+    }
+
+    /**
+     * Reads the states of the chunks that were loaded before the chunk listener was registered.
+     */
+    public void loadLoadedChunks() {
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                this.loadChunk(chunk);
+            }
+        }
+    }
+
+    public void clear() {
+        states.clear();
+        pending.clear();
+        waiting.clear();
+        inflight = 0;
+        wheel.clear();
+        completions.clear();
+    }
+
+    // hand waiting chunks to the store until the prefetch limit is reached
+    private void prefetch() {
+        PendingChunk pendingChunk;
+        while (inflight < PREFETCH_LIMIT && (pendingChunk = waiting.poll()) != null) {
+            // unloaded while waiting, nothing to read
+            if (this.pendingChunk(pendingChunk.world, pendingChunk.x, pendingChunk.z) != pendingChunk) continue;
+
+            inflight++;
+            PendingChunk loaded = pendingChunk;
+            BarrelStore.getInstance().load(pendingChunk.world, BarrelIndex.chunkKey(pendingChunk.x, pendingChunk.z), chunkStates -> this.install(loaded, chunkStates));
+        }
+    }
+
+    // drops the chunks that unloaded while waiting, if the queue is still full the oldest chunk is read right away
+    private void overflow() {
+        waiting.removeIf(waitingChunk -> this.pendingChunk(waitingChunk.world, waitingChunk.x, waitingChunk.z) != waitingChunk);
+        if (waiting.size() <= WAITING_LIMIT) return;
+
+        PendingChunk oldest = waiting.poll();
+        LongObjectMap<BarrelState> chunkStates = BarrelStore.getInstance().loadNow(oldest.world, BarrelIndex.chunkKey(oldest.x, oldest.z));
+        if (chunkStates == null) {
+            waiting.addFirst(oldest);
+            return;
+        }
+        syncLoads++;
+        inflight++;
+        this.install(oldest, chunkStates);
+    }
+
+    private void install(PendingChunk pendingChunk, LongObjectMap<BarrelState> chunkStates) {
+        inflight = Math.max(0, inflight - 1);
+        try {
+            // a reload of the same chunk queues a new pending chunk, only the latest read is installed
+            if (this.pendingChunk(pendingChunk.world, pendingChunk.x, pendingChunk.z) != pendingChunk) {
+                lateLoads++;
+                return;
+            }
+
+            LongObjectMap<PendingChunk> chunks = pending.get(pendingChunk.world);
+            chunks.remove(BarrelIndex.chunkKey(pendingChunk.x, pendingChunk.z));
+            if (chunks.isEmpty()) pending.remove(pendingChunk.world);
+            chunkLoads++;
+
+            // only barrels that are still indexed and were not emptied meanwhile
+            World world = Bukkit.getWorld(pendingChunk.world);
+            if (world == null || chunkStates.isEmpty()) return;
+            LongObjectMap<BarrelState> worldStates = states.computeIfAbsent(pendingChunk.world, uid -> new LongObjectMap<>());
+            BarrelIndex.getInstance().forEachInChunk(world.getChunkAt(pendingChunk.x, pendingChunk.z), position -> {
+                BarrelState state = chunkStates.get(position);
+                if (state == null || pendingChunk.finished.contains(position)) return;
+                worldStates.put(position, state);
+                this.schedule(world, position, state);
+            });
+            if (worldStates.isEmpty()) states.remove(pendingChunk.world);
+        } finally {
+            this.prefetch();
+        }
+    }
+    // endregion
+
+    // region completion
+    /**
+     * Advances the completion wheel by one tick, run by a timer every server tick.
+     */
+    public void tick() {
+        wheel.advance(wheel.now() + 1L, this::complete);
+    }
+
+    /**
+     * Schedules every brewing barrel again, called after a reload since recipe cycles may have changed.
+     */
+    public void reschedule() {
+        wheel.clear();
+        completions.clear();
+        states.forEach((uid, worldStates) -> {
+            World world = Bukkit.getWorld(uid);
+            if (world != null) worldStates.forEach((position, state) -> this.schedule(world, position, state));
+        });
+    }
+
+    // brews whose recipe is gone are handled when the barrel is opened, brews that are already done
+    // only get the chance to empty into a hopper on the next tick
+    private void schedule(World world, long position, BarrelState state) {
+        this.cancel(world.getUID(), position);
+        RecipeProperties recipe = Container.registry().recipe(state.recipe());
+        if (recipe == null) return;
+        long remaining = state.remaining(recipe, world.getFullTime());
+
+        TimingWheel.Timeout<Completion> timeout = wheel.schedule(wheel.now() + remaining, new Completion(world.getUID(), position, remaining > 0L));
+        completions.computeIfAbsent(world.getUID(), uid -> new LongObjectMap<>()).put(position, timeout);
+    }
+
+    private void cancel(UUID world, long position) {
+        LongObjectMap<TimingWheel.Timeout<Completion>> worldCompletions = completions.get(world);
+        if (worldCompletions == null) return;
+        TimingWheel.Timeout<Completion> timeout = worldCompletions.remove(position);
+        if (timeout != null) timeout.cancel();
+        if (worldCompletions.isEmpty()) completions.remove(world);
+    }
+
+    private void complete(Completion completion) {
+        LongObjectMap<TimingWheel.Timeout<Completion>> worldCompletions = completions.get(completion.world());
+        if (worldCompletions != null) {
+            worldCompletions.remove(completion.position());
+            if (worldCompletions.isEmpty()) completions.remove(completion.world());
+        }
+
+        World world = Bukkit.getWorld(completion.world());
+        LongObjectMap<BarrelState> worldStates = states.get(completion.world());
+        BarrelState state = worldStates == null ? null : worldStates.get(completion.position());
+        if (world == null || state == null) return;
+        RecipeProperties recipe = Container.registry().recipe(state.recipe());
+        if (recipe == null) return;
+
+        // the wheel counts server ticks, the brew counts world time, which /time may have moved
+        if (!state.complete(recipe, world.getFullTime())) {
+            this.schedule(world, completion.position(), state);
+            return;
+        }
+
+        Block block = world.getBlockAt(BarrelIndex.unpackX(completion.position()), BarrelIndex.unpackY(completion.position()), BarrelIndex.unpackZ(completion.position()));
+        BarrelHandle barrel = BarrelHandle.of(block);
+        if (barrel != null && !this.emit(barrel, recipe, state)) barrel.markChanged();
+        if (!completion.notify()) return;
+
+        Location location = block.getLocation().add(0.5D, 0.5D, 0.5D);
+        String message = String.format("%s%s %sfinished brewing at %d, %d, %d.", ChatColor.RESET, displayName(recipe), ChatColor.GRAY, block.getX(), block.getY(), block.getZ());
+        for (Player player : world.getPlayers()) {
+            if (player.getLocation().distanceSquared(location) <= NOTIFY_RADIUS * NOTIFY_RADIUS) player.sendMessage(message);
+        }
+    }
+
+    /**
+     * Moves the output of a finished brew into the barrel inventory when a hopper below can take it
+     * out, a brew whose output does not fit entirely waits for a player.
+     *
+     * @return true if the brew was emptied
+     */
+    private boolean emit(BarrelHandle barrel, RecipeProperties recipe, BarrelState state) {
+        Block block = barrel.block();
+        if (block.getRelative(BlockFace.DOWN).getType() != Material.HOPPER) return false;
+        ItemStack output = Container.registry().itemStack(recipe.output());
+        if (output == null) return false;
+
+        Inventory inventory = barrel.inventory();
+        ItemStack[] stacks = stacks(output, state.yield(recipe));
+        // the storage contents mirror the live stacks, addItem grows them in place
+        ItemStack[] before = inventory.getStorageContents();
+        for (int slot = 0; slot < before.length; slot++) {
+            if (before[slot] != null) before[slot] = before[slot].clone();
+        }
+        if (!inventory.addItem(stacks).isEmpty()) {
+            inventory.setStorageContents(before);
+            return false;
+        }
+        this.finish(block);
+        return true;
+    }
+    // endregion
+
+    // region helpers
+    /**
+     * @return true if the barrel neither brews nor waits for its chunk's states
+     */
+    public boolean isIdle(Block block) {
+        return !this.isLoading(block) && this.state(block) == null;
+    }
+
+    private boolean isLoading(Block block) {
+        return this.pendingChunk(block.getWorld().getUID(), block.getX() >> 4, block.getZ() >> 4) != null;
+    }
+
+    private @Nullable PendingChunk pendingChunk(UUID world, int chunkX, int chunkZ) {
+        LongObjectMap<PendingChunk> chunks = pending.get(world);
+        return chunks == null ? null : chunks.get(BarrelIndex.chunkKey(chunkX, chunkZ));
+    }
+
+    private void put(Block block, BarrelState state) {
+        states.computeIfAbsent(block.getWorld().getUID(), uid -> new LongObjectMap<>()).put(BarrelIndex.pack(block.getX(), block.getY(), block.getZ()), state);
+    }
+
+    private static ItemStack[] stacks(ItemStack output, int amount) {
+        List<ItemStack> stacks = new ArrayList<>();
+        for (int left = amount; left > 0; ) {
+            ItemStack stack = output.clone();
+            stack.setAmount(Math.min(left, output.getMaxStackSize()));
+            left -= stack.getAmount();
+            stacks.add(stack);
+        }
+        return stacks.toArray(new ItemStack[0]);
+    }
+
+    private static String displayName(RecipeProperties recipe) {
+        return ChatColor.translateAlternateColorCodes('&', recipe.display().text());
+    }
+
+    private static String formatTicks(long ticks) {
+        long days = ticks / BarrelState.TICKS_PER_DAY;
+        long hours = ticks % BarrelState.TICKS_PER_DAY / 1000L;
+        return days > 0 ? String.format("%dd %dh", days, hours) : String.format("%dh", Math.max(hours, ticks > 0 ? 1 : 0));
+    }
+    // endregion
+
+    /**
+     * Items taken from the storage slots of an inventory, matched by their interned id and only
+     * removed from the inventory on {@link #commit()}.
+     */
+    private static final class Reservation {
+        final Inventory inventory;
+        final BrewingRegistry registry;
+        final ItemStack[] contents;
+        /**
+         * slot - interned id, -1 for anything else
+         */
+        final int[] ids;
+        final int[] left;
+
+        Reservation(Inventory inventory, BrewingRegistry registry) {
+            this.inventory = inventory;
+            this.registry = registry;
+            contents = inventory.getStorageContents();
+            ids = new int[contents.length];
+            left = new int[contents.length];
+            for (int slot = 0; slot < contents.length; slot++) {
+                ids[slot] = registry.itemResolver().resolve(contents[slot]);
+                left[slot] = contents[slot] == null ? 0 : contents[slot].getAmount();
+            }
+        }
+
+        // one of the item from the first slot that still has one left
+        boolean take(int id) {
+            for (int slot = 0; slot < ids.length; slot++) {
+                if (ids[slot] != id || left[slot] == 0) continue;
+                left[slot]--;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Yeasts and extras are optional, each one found adds its amplify.
+         *
+         * @return the summed amplify
+         */
+        double takeOptional(RecipeProperties recipe, List<String> ingredients) {
+            double amplify = 0D;
+            for (int i = 0; i < recipe.yeasts().length; i++) {
+                if (!this.take(recipe.yeasts()[i])) continue;
+                amplify += recipe.yeastAmplify()[i];
+                ingredients.add(registry.itemKey(recipe.yeasts()[i]).toString());
+            }
+            for (int i = 0; i < recipe.extras().length; i++) {
+                if (!this.take(recipe.extras()[i])) continue;
+                amplify += recipe.extraAmplify()[i];
+                ingredients.add(registry.itemKey(recipe.extras()[i]).toString());
+            }
+            return amplify;
+        }
+
+        // gives back everything taken so far
+        void reset() {
+            for (int slot = 0; slot < contents.length; slot++) left[slot] = contents[slot] == null ? 0 : contents[slot].getAmount();
+        }
+
+        void commit() {
+            for (int slot = 0; slot < contents.length; slot++) {
+                if (contents[slot] == null || left[slot] == contents[slot].getAmount()) continue;
+                contents[slot].setAmount(left[slot]);
+                inventory.setItem(slot, left[slot] == 0 ? null : contents[slot]);
+            }
+        }
+    }
+
+    /**
+     * A loaded chunk whose states are not installed yet, identity tells reloads of the same chunk apart.
+     */
+    private static final class PendingChunk {
+        final UUID world;
+        final int x;
+        final int z;
+        /**
+         * barrels emptied or broken while the read was in flight
+         */
+        final LongHashSet finished = new LongHashSet(4);
+
+        PendingChunk(UUID world, int x, int z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+    }
+
+    /**
+     * @param notify false for brews that were already done when scheduled
+     */
+    private record Completion(UUID world, long position, boolean notify) {
+    }
+
+    private static final int PREFETCH_LIMIT = 64;
+    private static final int WAITING_LIMIT = 1024;
+    private static final double NOTIFY_RADIUS = 16D;
+
+    // region get instance
+    private static class EngineInstance {
+        static final BrewingEngine instance = new BrewingEngine();
+    }
+
+    public static BrewingEngine getInstance() {
+        return EngineInstance.instance;
+    }
+    // endregion
+}
@@ -1,23 +1,50 @@
 package com.baioretto.brewing.bean;
 
+import com.baioretto.brewing.barrel.BarrelHandle;
+import com.baioretto.brewing.gui.RecipesDetailGui;
+import com.baioretto.brewing.gui.RecipesPreviewGui;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
-import org.bukkit.block.Barrel;
+import lombok.experimental.NonFinal;
 import org.bukkit.entity.HumanEntity;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 @Getter
-@AllArgsConstructor
+@RequiredArgsConstructor
 @ToString
 public class OpenedBarrel {
-    Barrel barrel;
+    BarrelHandle barrel;
     @Singular
     ArrayList<HumanEntity> viewers = new ArrayList<>();
 
+    /**
+     * guis rendered to every viewer when shared-gui is enabled, they end with the session
+     */
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    RecipesPreviewGui preview;
+
+    /**
+     * recipe id - shared detail gui
+     */
+    @ToString.Exclude
+    Map<String, RecipesDetailGui> details = new HashMap<>();
+
     public OpenedBarrel viewers(HumanEntity entity) {
         viewers.add(entity);
         return this;
     }
+
+    /**
+     * Drops the shared guis, viewers keep what they have open until they open the barrel again.
+     */
+    public void forgetGuis() {
+        preview = null;
+        details.clear();
+    }
 }
@@ -1,18 +1,21 @@
 package com.baioretto.brewing.bean;
 
 
-import com.baioretto.brewing.enumerate.Type;
 import lombok.*;
 import lombok.experimental.Accessors;
 import lombok.experimental.FieldDefaults;
-import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
 
+/**
+ * A bound recipe. Ingredients are interned item ids of the registry the recipe was bound for,
+ * resolve them with {@link com.baioretto.brewing.registry.BrewingRegistry#itemKey(int)} or
+ * {@link com.baioretto.brewing.registry.BrewingRegistry#itemStack(int)}.
+ */
 @Getter
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
@@ -22,34 +25,19 @@ public class RecipeProperties implements Serializable {
     @NotNull String id, level;
     @NotNull ItemProperties.Content display;
     @Nullable ArrayList<ItemProperties.Content> lore;
-    @NotNull LinkedHashSet<ItemStack> substrates, containers;
-    @Nullable LinkedHashSet<CustomItem> yeasts, extras;
-    @NotNull ItemStack output;
+    @NotNull int[] substrates, containers;
+    /**
+     * yeasts and extras are empty when the recipe has none, {@code yeastAmplify[i]} belongs to {@code yeasts[i]}
+     */
+    @NotNull int[] yeasts, extras;
+    @NotNull double[] yeastAmplify, extraAmplify;
+    int output;
     int minYield, maxYield, cycle;
 
-    @Getter @Setter
-    @FieldDefaults(level = AccessLevel.PRIVATE)
-    @NoArgsConstructor(access = AccessLevel.PRIVATE)
-    @EqualsAndHashCode
-    public static class CustomItem {
-        @NotNull Type type;
-        @NotNull ItemStack item;
-        double amplify;
-
-        @Override
-        public String toString() {
-            return String.format("{item:%s,amplify:%f}", this.item, this.amplify);
-        }
-    }
-
     public static RecipePropertiesBuilder builder() {
         return new RecipePropertiesBuilder();
     }
 
-    public static CustomItem getCustomItem() {
-        return new CustomItem();
-    }
-
     @FieldDefaults(level = AccessLevel.PRIVATE)
     @Setter
     @Accessors(fluent = true, chain = true)
@@ -57,15 +45,19 @@ public class RecipeProperties implements Serializable {
         String id, level;
         ItemProperties.Content display;
         ArrayList<ItemProperties.Content> lore;
-        LinkedHashSet<ItemStack> substrates, containers;
-        LinkedHashSet<CustomItem> yeasts, extras;
-        ItemStack output;
+        int[] substrates, containers, yeasts, extras;
+        double[] yeastAmplify, extraAmplify;
+        int output;
         int minYield, maxYield, cycle;
 
         private RecipePropertiesBuilder() {
             lore = new ArrayList<>();
-            substrates = containers = new LinkedHashSet<>();
-            yeasts = extras = new LinkedHashSet<>();
+            substrates = EMPTY_IDS;
+            containers = EMPTY_IDS;
+            yeasts = EMPTY_IDS;
+            extras = EMPTY_IDS;
+            yeastAmplify = EMPTY_AMPLIFY;
+            extraAmplify = EMPTY_AMPLIFY;
         }
 
         public RecipePropertiesBuilder lore(ArrayList<ItemProperties.Content> lore) {
@@ -74,13 +66,28 @@ public class RecipeProperties implements Serializable {
             return this;
         }
 
+        public RecipePropertiesBuilder yeasts(int[] yeasts, double[] amplify) {
+            this.yeasts = yeasts;
+            this.yeastAmplify = amplify;
+            return this;
+        }
+
+        public RecipePropertiesBuilder extras(int[] extras, double[] amplify) {
+            this.extras = extras;
+            this.extraAmplify = amplify;
+            return this;
+        }
+
         public RecipeProperties build() {
-            return new RecipeProperties(this.id, this.level, this.display, this.lore, this.substrates, this.containers, this.yeasts, this.extras, this.output, this.minYield, this.maxYield, this.cycle);
+            return new RecipeProperties(this.id, this.level, this.display, this.lore, this.substrates, this.containers, this.yeasts, this.extras, this.yeastAmplify, this.extraAmplify, this.output, this.minYield, this.maxYield, this.cycle);
         }
     }
 
+    private static final int[] EMPTY_IDS = new int[0];
+    private static final double[] EMPTY_AMPLIFY = new double[0];
+
     @Override
     public String toString() {
-        return String.format("{id:%s,level:%s,display:%s,lore:%s,substrates:%s,yeasts:%s,extras:%s,containers:%s,output:%s,minYield:%d,maxYield:%d,cycle:%d}", this.id, this.level, this.display, this.lore, this.substrates, this.yeasts, this.extras, this.containers, this.output, this.minYield, this.maxYield, this.cycle);
+        return String.format("{id:%s,level:%s,display:%s,lore:%s,substrates:%s,yeasts:%s,yeastAmplify:%s,extras:%s,extraAmplify:%s,containers:%s,output:%d,minYield:%d,maxYield:%d,cycle:%d}", this.id, this.level, this.display, this.lore, Arrays.toString(this.substrates), Arrays.toString(this.yeasts), Arrays.toString(this.yeastAmplify), Arrays.toString(this.extras), Arrays.toString(this.extraAmplify), Arrays.toString(this.containers), this.output, this.minYield, this.maxYield, this.cycle);
     }
 }
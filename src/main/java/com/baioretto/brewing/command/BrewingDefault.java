@@ -17,6 +17,8 @@ public class BrewingDefault extends CommandBase {
         List<String> usageList = new ArrayList<>();
         usageList.add(translateAlternateColorCode("&d/brewing load"));
         usageList.add(translateAlternateColorCode("&d/brewing get <item-type> <id> <amount>"));
+        usageList.add(translateAlternateColorCode("&d/brewing graph [item-type] [id]"));
+        usageList.add(translateAlternateColorCode("&d/brewing stats"));
         commandSender.sendMessage(usageList.toArray(new String[]{}));
     }
 
@@ -1,24 +1,31 @@
 package com.baioretto.brewing.command;
 
-import com.baioretto.brewing.Container;
+import com.baioretto.brewing.Brewing;
 import com.baioretto.brewing.util.BrewingUtils;
 import me.mattstudios.mf.annotations.Command;
 import me.mattstudios.mf.annotations.SubCommand;
 import me.mattstudios.mf.base.CommandBase;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 
+import java.util.logging.Level;
+
 
 @Command("brewing")
 @SuppressWarnings("unused")
 public class Configuration extends CommandBase {
     @SubCommand("reload")
     public void reload(final CommandSender commandSender) {
-        this.clearContainer();
-        BrewingUtils.load(true);
-    }
-
-    private void clearContainer() {
-        Container.RECIPE_DETAIL_GUI.clear();
-        Container.RECIPE_PREVIEW_GUI.clear();
+        BrewingUtils.reload().whenComplete((unused, throwable) -> Bukkit.getScheduler().runTask(Brewing.instance(), () -> {
+            if (throwable != null) {
+                commandSender.sendMessage(ChatColor.RED + "Failed to reload brewing, check the console for details.");
+                Brewing.instance().getLogger().log(Level.SEVERE, "Failed to reload brewing", throwable);
+                return;
+            }
+            // guis and completions built from the previous snapshot are redone once the new one is published
+            BrewingUtils.onRegistryPublished();
+            commandSender.sendMessage(ChatColor.GREEN + "Reloaded brewing.");
+        }));
     }
 }
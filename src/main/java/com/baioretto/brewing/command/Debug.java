@@ -0,0 +1,105 @@
+package com.baioretto.brewing.command;
+
+import com.baioretto.brewing.Container;
+import com.baioretto.brewing.barrel.BarrelAutomation;
+import com.baioretto.brewing.barrel.BarrelHandle;
+import com.baioretto.brewing.barrel.BarrelIndex;
+import com.baioretto.brewing.barrel.BarrelSessions;
+import com.baioretto.brewing.barrel.BarrelStore;
+import com.baioretto.brewing.barrel.BrewingEngine;
+import com.baioretto.brewing.enumerate.Type;
+import com.baioretto.brewing.gui.GuiPages;
+import com.baioretto.brewing.gui.GuiSessions;
+import com.baioretto.brewing.registry.DependencyGraph;
+import com.baioretto.brewing.registry.ItemKey;
+import com.baioretto.brewing.util.ComponentCache;
+import me.mattstudios.mf.annotations.Command;
+import me.mattstudios.mf.annotations.Optional;
+import me.mattstudios.mf.annotations.Permission;
+import me.mattstudios.mf.annotations.SubCommand;
+import me.mattstudios.mf.base.CommandBase;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Command("brewing")
+@SuppressWarnings("unused")
+public class Debug extends CommandBase {
+    /**
+     * /brewing graph                  item-tier and recipe-tier links
+     * /brewing graph &lt;type&gt; &lt;id&gt;  everything depending on one item
+     */
+    @SubCommand("graph")
+    @Permission("brewing.debug")
+    public void graph(final CommandSender commandSender, @Optional Type type, @Optional String id) {
+        DependencyGraph graph = Container.registry().dependencies();
+        List<String> lines = new ArrayList<>();
+
+        if (type == null || id == null) {
+            lines.add(ChatColor.AQUA + "item-tier -> items");
+            graph.itemsByTier().asMap().forEach((tier, items) -> lines.add(line(tier, items)));
+            lines.add(ChatColor.AQUA + "recipe-tier -> tier item");
+            graph.tierItemByLevel().forEach((level, item) -> lines.add(line(level, Set.of(item))));
+            lines.add(String.format("%s%d item(s) are used by %d recipe link(s)", ChatColor.GRAY, graph.recipesByItem().keySet().size(), graph.recipesByItem().size()));
+            commandSender.sendMessage(lines.toArray(new String[]{}));
+            return;
+        }
+
+        ItemKey item = ItemKey.of(type, id);
+        if (Container.registry().itemStack(type, id) == null) {
+            commandSender.sendMessage(ChatColor.RED + "Unknown item " + item);
+            return;
+        }
+
+        lines.add(ChatColor.AQUA + item.toString());
+        String tier = graph.tierOf(item);
+        if (tier != null) lines.add(line("item-tier", Set.of(tier)));
+        lines.add(line("recipes", graph.recipesUsing(item)));
+        if (type == Type.TIER) lines.add(line("recipe-tier", graph.levelsByTierItem().get(item)));
+        commandSender.sendMessage(lines.toArray(new String[]{}));
+    }
+
+    /**
+     * /brewing stats  runtime counters
+     */
+    @SubCommand("stats")
+    @Permission("brewing.debug")
+    public void stats(final CommandSender commandSender) {
+        List<String> lines = new ArrayList<>();
+        lines.add(ChatColor.AQUA + "registry version " + Container.registry().version());
+
+        ComponentCache components = ComponentCache.getInstance();
+        long hits = components.hits(), misses = components.misses();
+        lines.add(String.format("%scomponent cache%s -> %s%d entries, %d hits, %d misses (%.1f%% hit rate)", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, components.size(), hits, misses, hits + misses == 0 ? 0D : hits * 100D / (hits + misses)));
+
+        BarrelIndex barrels = BarrelIndex.getInstance();
+        lines.add(String.format("%sbarrel index%s -> %s%d barrels in %d chunks", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, barrels.size(), barrels.chunks()));
+        BrewingEngine engine = BrewingEngine.getInstance();
+        lines.add(String.format("%sbrewing%s -> %s%d barrels in loaded chunks, %d completions scheduled, %d chunks loading (%d in flight)", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, engine.size(), engine.scheduled(), engine.loading(), engine.inflight()));
+        lines.add(String.format("%schunk loads%s -> %s%d installed, %d missed, %d late, %d synchronous", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, engine.chunkLoads(), engine.missedLoads(), engine.lateLoads(), engine.syncLoads()));
+        BarrelStore store = BarrelStore.getInstance();
+        lines.add(String.format("%sbarrel store%s -> %s%d states, %d tasks waiting for the journal", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, store.size(), store.pending()));
+
+        BarrelAutomation automation = BarrelAutomation.getInstance();
+        lines.add(String.format("%shopper moves%s -> %s%d accepted, %d rejected, %d brews started", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, automation.accepted(), automation.rejected(), automation.started()));
+
+        BarrelSessions sessions = BarrelSessions.getInstance();
+        lines.add(String.format("%sbarrel sessions%s -> %s%d live, %d viewers", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, sessions.size(), sessions.viewers()));
+        lines.add(String.format("%sbarrel handles%s -> %s%d on live states, %d on copied states", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, BarrelHandle.liveStates(), BarrelHandle.snapshots()));
+        long renders = GuiPages.renders(), slotUpdates = GuiPages.slotUpdates();
+        lines.add(String.format("%sgui renders%s -> %s%d renders, %d slot updates (%.1f per render)", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, renders, slotUpdates, renders == 0 ? 0D : (double) slotUpdates / renders));
+        GuiSessions guis = GuiSessions.getInstance();
+        lines.add(String.format("%sgui cache%s -> %s%d players, %d hits, %d misses, %d evicted", ChatColor.LIGHT_PURPLE, ChatColor.GRAY, ChatColor.WHITE, guis.size(), guis.hits(), guis.misses(), guis.evictions()));
+        commandSender.sendMessage(lines.toArray(new String[]{}));
+    }
+
+    private static String line(String name, Iterable<?> values) {
+        StringBuilder sb = new StringBuilder().append(ChatColor.LIGHT_PURPLE).append(name).append(ChatColor.GRAY).append(" -> ").append(ChatColor.WHITE);
+        values.forEach(value -> sb.append(value).append(", "));
+        if (sb.charAt(sb.length() - 2) == ',') sb.setLength(sb.length() - 2);
+        return sb.toString();
+    }
+}
@@ -20,8 +20,9 @@ public class Item extends CommandBase {
     public void getItem(CommandSender commandSender, Type type, String id, @Optional Integer amount) {
         if (!(commandSender instanceof HumanEntity player)) return;
 
-        ItemStack itemStack = Container.ITEM_STACK_MAP.get(type).get(id);
+        ItemStack itemStack = Container.registry().itemStack(type, id);
         if (itemStack == null) return;
+        itemStack = itemStack.clone();
 
         int maxStackSize = itemStack.getMaxStackSize();
         if (maxStackSize == -1 || amount == null || amount < 1) itemStack.setAmount(1);
@@ -40,8 +41,8 @@ public class Item extends CommandBase {
 
         Type type = Type.getType(arguments.get(0).toUpperCase(Locale.ROOT));
         if (type == null) return null;
-        Map<String, ItemStack> map = Container.ITEM_STACK_MAP.get(type);
-        if (map == null) return null;
+        Map<String, ItemStack> map = Container.registry().itemStacks(type);
+        if (map.isEmpty()) return null;
 
         if (arguments.size() == 2) {
             return map.keySet().stream().filter(s -> s.contains(arguments.get(1))).toList();
@@ -1,18 +1,17 @@
 package com.baioretto.brewing.command;
 
-import com.baioretto.brewing.Container;
-import com.baioretto.brewing.enumerate.Tag;
+import com.baioretto.brewing.barrel.BarrelSessions;
+import com.baioretto.brewing.gui.GuiSessions;
 import com.baioretto.brewing.gui.RecipesPreviewGui;
+import com.baioretto.brewing.registry.ItemStamp;
 import de.tr7zw.nbtapi.NBTItem;
 import me.mattstudios.mf.annotations.Command;
 import me.mattstudios.mf.annotations.Default;
 import me.mattstudios.mf.annotations.SubCommand;
 import me.mattstudios.mf.base.CommandBase;
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
 
 @Command("mock")
 @SuppressWarnings("unused")
@@ -25,19 +24,19 @@ public class MockTest extends CommandBase {
 
     @SubCommand("clearGuiContainer")
     public void clearGuiContainer(CommandSender commandSender) {
-        Container.RECIPE_PREVIEW_GUI.clear();
-        Container.RECIPE_DETAIL_GUI.clear();
+        GuiSessions.getInstance().clear();
     }
 
     @SubCommand("getOpenedBarrel")
     public void getOpenedBarrel(CommandSender commandSender) {
-        System.out.println(Container.OPENED_BARREL);
+        BarrelSessions sessions = BarrelSessions.getInstance();
+        System.out.println(sessions.size() + " sessions, " + sessions.viewers() + " viewers");
     }
 
     @SubCommand("getGuiContainer")
     public void getGuiContainer(CommandSender commandSender) {
-        System.out.println(Container.RECIPE_PREVIEW_GUI);
-        System.out.println(Container.RECIPE_DETAIL_GUI);
+        GuiSessions guis = GuiSessions.getInstance();
+        System.out.println(guis.size() + " players, " + guis.hits() + " hits, " + guis.misses() + " misses, " + guis.evictions() + " evictions");
     }
 
     @SubCommand("getNbtInHand")
@@ -50,9 +49,6 @@ public class MockTest extends CommandBase {
     public void getBarrel(CommandSender commandSender) {
         if (!(commandSender instanceof Player player)) return;
 
-        ItemStack barrel = new ItemStack(Material.BARREL);
-        NBTItem nbtItem = new NBTItem(barrel);
-        nbtItem.setObject(Tag.BARREL.key(), Tag.BARREL.value());
-        player.getInventory().addItem(nbtItem.getItem());
+        player.getInventory().addItem(ItemStamp.barrel());
     }
 }
@@ -1,7 +1,6 @@
 package com.baioretto.brewing.enumerate;
 
 import com.google.common.collect.Maps;
-import de.tr7zw.nbtapi.NBTItem;
 import dev.triumphteam.gui.builder.item.ItemBuilder;
 import dev.triumphteam.gui.guis.GuiItem;
 import net.kyori.adventure.text.Component;
@@ -54,8 +53,6 @@ public enum Item implements EnumBase {
 
     @Override
     public ItemStack getItemStack() {
-        NBTItem nbtItem = new NBTItem(item.getItemStack());
-        nbtItem.removeKey("PublicBukkitValues");
         return item.getItemStack();
     }
 
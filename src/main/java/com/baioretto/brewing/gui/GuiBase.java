@@ -2,15 +2,18 @@ package com.baioretto.brewing.gui;
 
 import com.baioretto.baiolib.api.extension.bukkit.BukkitImpl;
 import com.baioretto.brewing.Container;
+import com.baioretto.brewing.barrel.BarrelSessions;
 import com.baioretto.brewing.bean.OpenedBarrel;
+import com.baioretto.brewing.loader.ConfigurationLoader;
+import com.baioretto.brewing.registry.BrewingRegistry;
 import dev.triumphteam.gui.guis.BaseGui;
 
 import dev.triumphteam.gui.guis.Gui;
 import dev.triumphteam.gui.guis.GuiItem;
-import dev.triumphteam.gui.guis.PaginatedGui;
 import com.baioretto.brewing.enumerate.Item;
 import lombok.Getter;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.inventory.InventoryAction;
@@ -23,19 +26,40 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 public abstract class GuiBase<C extends BaseGui> {
-    protected final int pageSize;
+    /**
+     * title only updates, null without ProtocolLib where the inventory is opened again instead
+     */
+    private static final @Nullable TitlePackets TITLE_PACKETS = Bukkit.getPluginManager().isPluginEnabled("ProtocolLib") ? TitlePackets.create() : null;
+
+    protected final BrewingRegistry registry;
     private final int rows;
     private final Set<Integer> untouchableZone;
     private final Component title;
     private final List<Consumer<C>> consumer;
     public C gui;
+    /**
+     * the items on the free slots, see {@link #initGui()}
+     */
+    @Getter
+    protected GuiPages pages;
     protected final Location barrelLocation;
+    /**
+     * rendered to every viewer of the barrel, see {@link #sharedSession(Location)}
+     */
+    protected final boolean shared;
     protected boolean toNext = false;
-
-    protected GuiBase(int pageSize, int rows, Location barrelLocation) {
-        this.pageSize = pageSize;
+    /**
+     * title the inventory was created with and the title it should show, they differ after a title
+     * only update until the inventory is created again
+     */
+    private Component inventoryTitle, currentTitle;
+
+    protected GuiBase(int rows, Location barrelLocation) {
+        // one snapshot per gui, a reload never changes what an open gui shows
+        this.registry = Container.registry();
         this.rows = rows;
         this.untouchableZone = untouchableZone();
 
@@ -44,17 +68,24 @@ public abstract class GuiBase<C extends BaseGui> {
         this.consumer = consumers();
 
         this.barrelLocation = barrelLocation;
+
+        this.shared = sharedSession(barrelLocation) != null;
     }
 
+    /**
+     * Creates the gui, every slot outside the untouchable zone is free for {@link #pages}.
+     */
     @SuppressWarnings("unchecked")
-    protected <E extends GuiBase<?>> E initPaginatedGui() {
-        PaginatedGui gui = Gui.paginated().rows(rows).pageSize(pageSize).title(title).apply((Consumer<PaginatedGui>) actionAfterCreatingPaginationGui()).create();
+    protected <E extends GuiBase<?>> E initGui() {
+        Gui gui = Gui.gui().rows(rows).title(title).apply((Consumer<Gui>) actionAfterCreatingGui()).create();
 
         this.gui = (C) gui;
+        this.inventoryTitle = this.currentTitle = title;
+        this.pages = new GuiPages(gui, IntStream.range(0, rows * 9).filter(slot -> untouchableZone == null || !untouchableZone.contains(slot)).toArray());
 
         if (consumer != null) {
             for (Consumer<C> c : consumer) {
-                ((Consumer<PaginatedGui>) c).accept(gui);
+                ((Consumer<Gui>) c).accept(gui);
             }
         }
 
@@ -69,33 +100,54 @@ public abstract class GuiBase<C extends BaseGui> {
 
     protected abstract Consumer<C> openGuiAction();
 
-    protected abstract void open(HumanEntity player, int openPage);
+    /**
+     * @param openPage page number, 1 for the first page
+     */
+    protected void open(HumanEntity player, int openPage) {
+        if (player.isSleeping()) return;
+        if (gui.getInventory().getViewers().isEmpty() && inventoryTitle != currentTitle) this.createInventory(currentTitle);
+        pages.page(openPage - 1);
+        gui.open(player);
+    }
+
+    /**
+     * Opens the gui for one more player. A shared gui that is already on screen is joined as it
+     * is, its inventory is not rendered again.
+     */
+    protected void join(HumanEntity player) {
+        if (shared && !gui.getInventory().getViewers().isEmpty()) {
+            if (player.isSleeping()) return;
+            player.openInventory(gui.getInventory());
+            if (inventoryTitle != currentTitle && TITLE_PACKETS != null) TITLE_PACKETS.update(player, currentTitle);
+            return;
+        }
+        open(player, 1);
+    }
+
+    /**
+     * @return the session of the barrel if its viewers share one gui, null if every viewer gets their own
+     */
+    protected static @Nullable OpenedBarrel sharedSession(Location barrelLocation) {
+        if (!ConfigurationLoader.getInstance().sharedGui()) return null;
+        return BarrelSessions.getInstance().get(barrelLocation);
+    }
 
     private Consumer<C> defaultCloseGuiAction() {
         return gui -> gui.setCloseGuiAction(event -> {
-            if (event.getViewers().size() != 1) return;
+            // a shared inventory has more viewers, each of them leaves the session on their own
+            if (!shared && event.getViewers().size() != 1) return;
 
             if (this.toNext) {
                 toNext = false;
                 return;
             }
 
-            OpenedBarrel openedBarrel = Container.OPENED_BARREL.get(barrelLocation);
-            if (openedBarrel == null) return;
-
-            if (openedBarrel.viewers().size() != 1) {
-                openedBarrel.viewers().remove(event.getPlayer());
-                return;
-            }
-
-            Container.OPENED_BARREL.remove(barrelLocation);
-
-            openedBarrel.barrel().close();
+            BarrelSessions.getInstance().close(barrelLocation, event.getPlayer());
             toNext = false;
         });
     }
 
-    private Consumer<C> actionAfterCreatingPaginationGui() {
+    private Consumer<C> actionAfterCreatingGui() {
         return gui -> {
             setUntouchableZone(gui);
             setPlayerInteractGuiAction(gui);
@@ -107,7 +159,7 @@ public abstract class GuiBase<C extends BaseGui> {
     private void setUntouchableZone(final BaseGui gui) {
         if (untouchableZone == null) return;
         GuiItem air = Item.AIR.getGuiItem();
-        for (int index = 0; index < 54; index++) {
+        for (int index = 0; index < rows * 9; index++) {
             if (!untouchableZone.contains(index)) continue;
             gui.setItem(index, air);
         }
@@ -142,27 +194,59 @@ public abstract class GuiBase<C extends BaseGui> {
 
     private void defaultTopClickAction(final InventoryClickEvent event) {
         event.setCancelled(true);
+        this.topClick(event);
     }
 
-    protected void updateTitle(Component title) {
-        updateTitle(title, 1);
+    /**
+     * Called for every click into the gui after it was cancelled, before the action of the clicked item.
+     */
+    protected void topClick(final InventoryClickEvent event) {
     }
 
-    @SuppressWarnings("SameParameterValue")
-    protected void updateTitle(Component title, int pageNum) {
-        gui.setUpdating(true);
+    /**
+     * Shows another title. Viewers get the title alone under the window they have open when
+     * ProtocolLib is there, otherwise the inventory is created again and opened for them.
+     *
+     * @param title one of the precomputed titles of the subclass, compared by identity
+     */
+    protected void updateTitle(Component title) {
+        if (title == currentTitle) return;
+        currentTitle = title;
 
         final List<HumanEntity> viewers = new ArrayList<>(gui.getInventory().getViewers());
+        if (viewers.isEmpty()) {
+            this.createInventory(title);
+            return;
+        }
 
-        gui.setInventory(BukkitImpl.createInventory(gui, gui.getInventory().getSize(), title));
-
-        for (final HumanEntity player : viewers) {
-            open(player, pageNum);
+        if (TITLE_PACKETS != null) {
+            boolean updated = true;
+            for (HumanEntity viewer : viewers) updated &= TITLE_PACKETS.update(viewer, title);
+            if (updated) return;
         }
 
+        gui.setUpdating(true);
+        this.createInventory(title);
+        // render once for the first viewer, the others are shown the same inventory
+        for (int i = 0; i < viewers.size(); i++) {
+            if (i == 0) open(viewers.get(i), pages.page() + 1);
+            else viewers.get(i).openInventory(gui.getInventory());
+        }
         gui.setUpdating(false);
     }
 
+    /**
+     * Forgets the window of a player who quit.
+     */
+    static void quit(HumanEntity player) {
+        if (TITLE_PACKETS != null) TITLE_PACKETS.quit(player);
+    }
+
+    private void createInventory(Component title) {
+        gui.setInventory(BukkitImpl.createInventory(gui, gui.getInventory().getSize(), title));
+        inventoryTitle = title;
+    }
+
     @Getter
     private final ItemStack
             nextButton = Item.NEXT_BUTTON.getItemStack(),
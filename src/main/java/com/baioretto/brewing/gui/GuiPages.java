@@ -0,0 +1,176 @@
+package com.baioretto.brewing.gui;
+
+import dev.triumphteam.gui.guis.BaseGui;
+import dev.triumphteam.gui.guis.GuiItem;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pagination of a list of gui items over the free slots of a gui.
+ *
+ * <p><pre>
+ *  free slots   -----  every slot outside the untouchable zone, ascending, one page each
+ *  slot index   -----  slot - position in the free slots, -1 for the rest
+ *  </pre>
+ * Both tables are computed once per gui. A page flip only moves the page number and writes the
+ * free slots, item {@code page * size + i} goes to free slot {@code i}. The items are not copied,
+ * a shared list such as a {@link TierPages.Tier} is referenced as it is.
+ *
+ * <p>The stacks last written to each slot are kept, a render only writes the slots whose stack is
+ * another instance now. Slots empty before and after, page buttons keeping their state and a page
+ * shown again as it was are left alone, so viewers are only sent what changed. Only touched on the
+ * main thread.
+ */
+public final class GuiPages {
+    // region metrics
+    private static long renders;
+    private static long slotUpdates;
+    // endregion
+
+    private final BaseGui gui;
+    private final int[] slots;
+    private final int[] slotIndex;
+    /**
+     * slot - stack last written to it by this gui, null for an empty or never written slot
+     */
+    private final ItemStack[] rendered;
+
+    private List<GuiItem> items = List.of();
+    private int page;
+
+    /**
+     * @param slots free slots, ascending
+     */
+    GuiPages(BaseGui gui, int[] slots) {
+        this.gui = gui;
+        this.slots = slots;
+        this.slotIndex = new int[gui.getRows() * 9];
+        this.rendered = new ItemStack[gui.getRows() * 9];
+        Arrays.fill(slotIndex, -1);
+        for (int i = 0; i < slots.length; i++) slotIndex[slots[i]] = i;
+    }
+
+    /**
+     * Shows the items from their first page on.
+     */
+    public void items(List<GuiItem> items) {
+        this.items = items;
+        this.page = 0;
+        this.render();
+    }
+
+    /**
+     * @param page page index, clamped to the pages there are
+     */
+    public void page(int page) {
+        this.page = Math.max(0, Math.min(page, this.pages() - 1));
+        this.render();
+    }
+
+    public boolean next() {
+        if (!this.hasNext()) return false;
+        page++;
+        this.render();
+        return true;
+    }
+
+    public boolean previous() {
+        if (!this.hasPrevious()) return false;
+        page--;
+        this.render();
+        return true;
+    }
+
+    public boolean hasNext() {
+        return page < this.pages() - 1;
+    }
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+
+    /**
+     * @return page index, 0 for the first page
+     */
+    public int page() {
+        return page;
+    }
+
+    public int pages() {
+        return slots.length == 0 ? 1 : Math.max(1, (items.size() + slots.length - 1) / slots.length);
+    }
+
+    /**
+     * @return count of items a page holds
+     */
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * @return position of the slot in the free slots, -1 if it is not free
+     */
+    public int slotIndex(int slot) {
+        return slot >= 0 && slot < slotIndex.length ? slotIndex[slot] : -1;
+    }
+
+    /**
+     * @return the item shown in the slot, null if the slot is empty or not free
+     */
+    public @Nullable GuiItem item(int slot) {
+        int index = this.slotIndex(slot);
+        if (index < 0) return null;
+        int position = page * slots.length + index;
+        return position < items.size() ? items.get(position) : null;
+    }
+
+    /**
+     * Shows the stack on a fixed slot such as a page button, nothing is written if it already shows
+     * that instance.
+     */
+    public void fixed(int slot, ItemStack itemStack) {
+        if (rendered[slot] == itemStack) return;
+        rendered[slot] = itemStack;
+        gui.updateItem(slot, itemStack);
+        slotUpdates++;
+    }
+
+    /**
+     * @return count of renders, every page flip, tier or tab switch and open is one
+     */
+    public static long renders() {
+        return renders;
+    }
+
+    /**
+     * @return count of slots written by all renders and fixed slot updates
+     */
+    public static long slotUpdates() {
+        return slotUpdates;
+    }
+
+    // writes the free slots of the current page that changed, the gui item table and the inventory alike
+    private void render() {
+        renders++;
+        int offset = page * slots.length;
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            GuiItem item = offset + i < items.size() ? items.get(offset + i) : null;
+            ItemStack itemStack = item == null ? null : item.getItemStack();
+            if (rendered[slot] == itemStack) continue;
+
+            rendered[slot] = itemStack;
+            slotUpdates++;
+            if (item != null) {
+                gui.setItem(slot, item);
+                gui.getInventory().setItem(slot, itemStack);
+            } else {
+                gui.removeItem(slot);
+                gui.getInventory().setItem(slot, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.baioretto.brewing.gui;
+
+import com.baioretto.brewing.Container;
+import com.baioretto.brewing.loader.ConfigurationLoader;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.entity.HumanEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The last preview and detail gui of every player, kept so opening a barrel again is cheap.
+ *
+ * <p>Keyed by the player uuid, so a player who logged out is never held. Entries are kept in
+ * access order, the least recently used one is dropped once {@code gui-cache-size} is exceeded and
+ * every entry unused for {@code gui-cache-idle} seconds is dropped on the next access. An entry
+ * built on an older registry version is dropped when it is looked up, a reload clears nothing.
+ * Only touched on the main thread.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class GuiSessions {
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    // region metrics
+    private long hits;
+    private long misses;
+    private long evictions;
+    // endregion
+
+    // region lookup
+    public @Nullable RecipesPreviewGui preview(HumanEntity player) {
+        Entry entry = this.entry(player, false);
+        return this.count(entry == null ? null : entry.preview);
+    }
+
+    public @Nullable RecipesDetailGui detail(HumanEntity player) {
+        Entry entry = this.entry(player, false);
+        return this.count(entry == null ? null : entry.detail);
+    }
+
+    public void preview(HumanEntity player, RecipesPreviewGui preview) {
+        //noinspection ConstantConditions
+        this.entry(player, true).preview = preview;
+    }
+
+    public void detail(HumanEntity player, RecipesDetailGui detail) {
+        //noinspection ConstantConditions
+        this.entry(player, true).detail = detail;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * @return count of entries dropped for size, idle time or an outdated registry
+     */
+    public long evictions() {
+        return evictions;
+    }
+    // endregion
+
+    // region lifecycle
+    public void quit(HumanEntity player) {
+        entries.remove(player.getUniqueId());
+        GuiBase.quit(player);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+    // endregion
+
+    // region helpers
+    private @Nullable Entry entry(HumanEntity player, boolean create) {
+        long now = System.currentTimeMillis();
+        this.evictIdle(now);
+
+        long version = Container.registry().version();
+        Entry entry = entries.get(player.getUniqueId());
+        if (entry != null && entry.version != version) {
+            entries.remove(player.getUniqueId());
+            evictions++;
+            entry = null;
+        }
+        if (entry == null) {
+            if (!create) return null;
+            entry = new Entry(version);
+            entries.put(player.getUniqueId(), entry);
+            this.evictOverSize();
+        }
+        entry.lastUsed = now;
+        return entry;
+    }
+
+    private <G> @Nullable G count(@Nullable G gui) {
+        if (gui == null) misses++;
+        else hits++;
+        return gui;
+    }
+
+    // access order puts the longest unused entries first, the walk stops at the first fresh one
+    private void evictIdle(long now) {
+        long idle = ConfigurationLoader.getInstance().guiCacheIdle() * 1000L;
+        if (idle <= 0) return;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && now - iterator.next().lastUsed > idle) {
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private void evictOverSize() {
+        int size = Math.max(1, ConfigurationLoader.getInstance().guiCacheSize());
+        Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > size && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+    // endregion
+
+    private static final class Entry {
+        final long version;
+        long lastUsed;
+        @Nullable RecipesPreviewGui preview;
+        @Nullable RecipesDetailGui detail;
+
+        Entry(long version) {
+            this.version = version;
+        }
+    }
+
+    // region get instance
+    private static class SessionsInstance {
+        static final GuiSessions instance = new GuiSessions();
+    }
+
+    public static GuiSessions getInstance() {
+        return SessionsInstance.instance;
+    }
+    // endregion
+}
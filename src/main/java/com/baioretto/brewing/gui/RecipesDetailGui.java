@@ -2,11 +2,12 @@ package com.baioretto.brewing.gui;
 
 import com.baioretto.baiolib.api.extension.meta.ItemMetaImpl;
 import com.baioretto.baiolib.api.extension.stack.ItemStackImpl;
+import com.baioretto.brewing.barrel.BrewingEngine;
+import com.baioretto.brewing.bean.OpenedBarrel;
 import com.baioretto.brewing.bean.RecipeProperties;
 import dev.triumphteam.gui.builder.item.ItemBuilder;
 import dev.triumphteam.gui.guis.GuiItem;
-import dev.triumphteam.gui.guis.PaginatedGui;
-import com.baioretto.brewing.Container;
+import dev.triumphteam.gui.guis.Gui;
 import com.baioretto.brewing.enumerate.Item;
 import com.baioretto.brewing.exception.BrewingInternalException;
 import com.baioretto.brewing.util.GuiUtils;
@@ -26,23 +27,32 @@ import java.util.stream.IntStream;
 import static com.baioretto.brewing.enumerate.Title.*;
 
 @ExtensionMethod({ItemStackImpl.class, ItemMetaImpl.class})
-public class RecipesDetailGui extends GuiBase<PaginatedGui> {
+public class RecipesDetailGui extends GuiBase<Gui> {
     private RecipeProperties recipe;
     private Type currentSelected;
+    /**
+     * selected type - its items, built on the first selection
+     */
+    private final Map<Type, List<GuiItem>> showcase = new EnumMap<>(Type.class);
 
     private RecipesDetailGui(Location barrelLocation) {
-        super(7, 6, barrelLocation);
+        super(6, barrelLocation);
         this.currentSelected = Type.SUBSTRATE;
         this.setButtonAction();
     }
 
     public static void open(final HumanEntity player, @NotNull String recipeName, Location barrelLocation) {
-        Map<HumanEntity, RecipesDetailGui> guiMap = Container.RECIPE_DETAIL_GUI;
+        OpenedBarrel session = sharedSession(barrelLocation);
+        if (session != null) {
+            session.details().computeIfAbsent(recipeName, key -> RecipesDetailGui.getInstance(key, barrelLocation)).join(player);
+            return;
+        }
 
-        RecipesDetailGui guiInstance = guiMap.getOrDefault(player, null);
-        if (guiInstance == null) {
+        GuiSessions guis = GuiSessions.getInstance();
+        RecipesDetailGui guiInstance = guis.detail(player);
+        if (guiInstance == null || !guiInstance.recipe.id().equals(recipeName) || !guiInstance.barrelLocation.equals(barrelLocation)) {
             guiInstance = RecipesDetailGui.getInstance(recipeName, barrelLocation);
-            guiMap.put(player, guiInstance);
+            guis.detail(player, guiInstance);
         }
 
         guiInstance.open(player, 1);
@@ -53,18 +63,18 @@ public class RecipesDetailGui extends GuiBase<PaginatedGui> {
     }
 
     private RecipesDetailGui generatedGui(String recipeKey) {
-        recipe = Container.RECIPE_PROPERTIES.getOrDefault(recipeKey, null);
+        recipe = registry.recipe(recipeKey);
         if (recipe == null) {
             throw new BrewingInternalException();
         }
-        return initPaginatedGui();
+        return initGui();
     }
 
-    private Consumer<PaginatedGui> outputConsumer() {
-        return gui -> gui.setItem(4, ItemBuilder.from(recipe.output()).asGuiItem());
+    private Consumer<Gui> outputConsumer() {
+        return gui -> gui.setItem(4, ItemBuilder.from(Objects.requireNonNull(registry.itemStack(recipe.output()))).asGuiItem());
     }
 
-    private Consumer<PaginatedGui> cancelConsumer() {
+    private Consumer<Gui> cancelConsumer() {
         return gui -> {
             GuiItem guiItem = Item.CANCEL.getGuiItem();
             guiItem.setAction(event -> {
@@ -76,77 +86,57 @@ public class RecipesDetailGui extends GuiBase<PaginatedGui> {
         };
     }
 
-    private Consumer<PaginatedGui> confirmConsumer() {
-        return gui -> {
-            // todo brewing gui
-            gui.setItem(7, Item.CONFIRM.getGuiItem());
-        };
+    private Consumer<Gui> confirmConsumer() {
+        return gui -> gui.setItem(7, new GuiItem(Item.CONFIRM.getItemStack(), event -> {
+            HumanEntity player = event.getWhoClicked();
+            if (!BrewingEngine.getInstance().start(player, barrelLocation.getBlock(), recipe, registry)) return;
+            player.closeInventory();
+        }));
     }
 
-    private Consumer<PaginatedGui> substrateConsumer() {
+    private Consumer<Gui> substrateConsumer() {
         return gui -> gui.setItem(19, substrateButton);
     }
 
-    private Consumer<PaginatedGui> yeastConsumer() {
+    private Consumer<Gui> yeastConsumer() {
         return gui -> gui.setItem(21, yeastButton);
     }
 
-    private Consumer<PaginatedGui> containerConsumer() {
+    private Consumer<Gui> containerConsumer() {
         return gui -> gui.setItem(23, containerButton);
     }
 
-    private Consumer<PaginatedGui> extraConsumer() {
+    private Consumer<Gui> extraConsumer() {
         return gui -> gui.setItem(25, extraButton);
     }
 
-    private Consumer<PaginatedGui> updateShowcaseConsumer() {
+    private Consumer<Gui> updateShowcaseConsumer() {
         return this::updateShowcase;
     }
 
-    private void updateShowcase(final PaginatedGui gui) {
-        switch (currentSelected) {
-            case SUBSTRATE , CONTAINER -> {
-                LinkedHashSet<ItemStack> itemStacks = currentSelected == Type.SUBSTRATE ? recipe.substrates() : recipe.containers();
-                gui.clearPageItems(itemStacks.size() == 0);
-                if (itemStacks.size() == 0) {
-                    updateTitle();
-                    GuiUtils.updateButtonState(this, previousButtonSlot, nextButtonSlot).accept(gui);
-                    return;
-                }
-                itemStacks.forEach(item -> {
-                    GuiItem guiItem = new GuiItem(item);
-                    gui.addItem(guiItem);
-                });
-            }
-            case YEAST, EXTRA -> {
-                LinkedHashSet<RecipeProperties.CustomItem> customItems = currentSelected == Type.YEAST ? recipe.yeasts() : recipe.extras();
-                gui.clearPageItems(customItems == null || customItems.size() == 0);
-                if (customItems == null || customItems.size() == 0) {
-                    updateTitle();
-                    GuiUtils.updateButtonState(this, previousButtonSlot, nextButtonSlot).accept(gui);
-                    return;
-                }
-                customItems.forEach(item -> {
-                    GuiItem guiItem = new GuiItem(item.item());
-                    gui.addItem(guiItem);
-                });
-            }
+    private void updateShowcase(final Gui gui) {
+        int[] ids = switch (currentSelected) {
+            case SUBSTRATE -> recipe.substrates();
+            case CONTAINER -> recipe.containers();
+            case YEAST -> recipe.yeasts();
+            case EXTRA -> recipe.extras();
             default -> throw new BrewingInternalException();
-        }
+        };
+        pages.items(showcase.computeIfAbsent(currentSelected, type -> {
+            List<GuiItem> items = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                ItemStack itemStack = registry.itemStack(id);
+                if (itemStack != null) items.add(new GuiItem(itemStack));
+            }
+            return items;
+        }));
         updateTitle();
         GuiUtils.updateButtonState(this, previousButtonSlot, nextButtonSlot).accept(gui);
     }
 
     private void updateTitle() {
-        Component title = gui.title();
-        switch (currentSelected) {
-            case SUBSTRATE -> title = title.append(substrateSelected);
-            case YEAST -> title = title.append(yeastSelected);
-            case CONTAINER -> title = title.append(containerSelected);
-            case EXTRA -> title = title.append(extraSelected);
-            default -> throw new BrewingInternalException("current seleted out of bound.");
-        }
-
+        Component title = titles.get(currentSelected);
+        if (title == null) throw new BrewingInternalException("current seleted out of bound.");
         updateTitle(title);
     }
 
@@ -178,7 +168,7 @@ public class RecipesDetailGui extends GuiBase<PaginatedGui> {
 
     @Override
     protected Component title() {
-        return getRecipeDetailGuiTitle();
+        return baseTitle;
     }
 
     @Override
@@ -192,7 +182,7 @@ public class RecipesDetailGui extends GuiBase<PaginatedGui> {
     }
 
     @Override
-    protected List<Consumer<PaginatedGui>> consumers() {
+    protected List<Consumer<Gui>> consumers() {
         return Arrays.asList(
                 GuiUtils.guiButtonConsumer(this, previousButtonSlot, nextButtonSlot),
                 confirmConsumer(),
@@ -207,15 +197,10 @@ public class RecipesDetailGui extends GuiBase<PaginatedGui> {
     }
 
     @Override
-    protected Consumer<PaginatedGui> openGuiAction() {
+    protected Consumer<Gui> openGuiAction() {
         return gui -> gui.setOpenGuiAction(event -> GuiUtils.updateButtonState(this, previousButtonSlot, nextButtonSlot).accept(gui));
     }
 
-    @Override
-    protected void open(HumanEntity player, int openPage) {
-        GuiUtils.paginatedGuiOpen(gui, player, openPage);
-    }
-
     private final GuiItem
             substrateButton,
             yeastButton,
@@ -247,6 +232,17 @@ public class RecipesDetailGui extends GuiBase<PaginatedGui> {
     private final static Component containerSelected = GuiUtils.getTitle(NEGATIVE_66, NEGATIVE_18, NEGATIVE_6, DETAIL_SLOT_SELECTED);
     private final static Component extraSelected = GuiUtils.getTitle(NEGATIVE_66, POSITIVE_15, DETAIL_SLOT_SELECTED);
 
+    private final static Component baseTitle = getRecipeDetailGuiTitle();
+    /**
+     * selected type - title, built once so a tab switch only picks an instance
+     */
+    private final static Map<Type, Component> titles = new EnumMap<>(Map.of(
+            Type.SUBSTRATE, baseTitle.append(substrateSelected),
+            Type.YEAST, baseTitle.append(yeastSelected),
+            Type.CONTAINER, baseTitle.append(containerSelected),
+            Type.EXTRA, baseTitle.append(extraSelected)
+    ));
+
     private final static int previousButtonSlot = 46;
     private final static int nextButtonSlot = 52;
 
@@ -2,13 +2,14 @@ package com.baioretto.brewing.gui;
 
 import dev.triumphteam.gui.builder.item.ItemBuilder;
 import dev.triumphteam.gui.guis.GuiItem;
-import dev.triumphteam.gui.guis.PaginatedGui;
-import com.baioretto.brewing.Container;
+import dev.triumphteam.gui.guis.Gui;
+import com.baioretto.brewing.bean.OpenedBarrel;
 import com.baioretto.brewing.exception.BrewingInternalException;
 import com.baioretto.brewing.util.GuiUtils;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
 import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
@@ -19,47 +20,53 @@ import java.util.stream.IntStream;
 
 import static com.baioretto.brewing.enumerate.Title.*;
 
-public class RecipesPreviewGui extends GuiBase<PaginatedGui> {
+public class RecipesPreviewGui extends GuiBase<Gui> {
     private int currentTier = 1;
-    private final List<Map.Entry<String, ItemStack>> tierEntries;
+    private final TierPages tierPages;
 
     private RecipesPreviewGui(Location barrelLocation) {
-        super(27, 6, barrelLocation);
-        this.tierEntries = Container.RECIPE_TIER.entrySet().stream().toList();
+        super(6, barrelLocation);
+        this.tierPages = TierPages.of(registry);
     }
 
     public static void open(final HumanEntity player, Location barrelLocation) {
-        Map<HumanEntity, RecipesPreviewGui> guiMap = Container.RECIPE_PREVIEW_GUI;
+        OpenedBarrel session = sharedSession(barrelLocation);
+        if (session != null) {
+            if (session.preview() == null) session.preview(RecipesPreviewGui.getInstance(barrelLocation));
+            session.preview().join(player);
+            return;
+        }
 
-        RecipesPreviewGui instance = guiMap.getOrDefault(player, null);
-        if (instance == null) {
+        GuiSessions guis = GuiSessions.getInstance();
+        RecipesPreviewGui instance = guis.preview(player);
+        // a cached gui belongs to the barrel it was opened for
+        if (instance == null || !instance.barrelLocation.equals(barrelLocation)) {
             instance = RecipesPreviewGui.getInstance(barrelLocation);
-            instance.initPaginatedGui();
-            guiMap.put(player, instance);
+            guis.preview(player, instance);
         }
 
         instance.open(player, 1);
     }
 
     public static RecipesPreviewGui getInstance(Location barrelLocation) {
-        return new RecipesPreviewGui(barrelLocation).initPaginatedGui();
+        return new RecipesPreviewGui(barrelLocation).initGui();
     }
 
-    private Consumer<PaginatedGui> recipeShowcaseConsumer() {
+    private Consumer<Gui> recipeShowcaseConsumer() {
         return this::updateRecipesShowcase;
     }
 
-    private Consumer<PaginatedGui> tierIcon() {
+    private Consumer<Gui> tierIcon() {
         return gui -> {
-            ItemStack t1I = tierEntries.get(0).getValue();
+            ItemStack t1I = tierPages.tier(0).icon();
             GuiItem t1G = ItemBuilder.from(t1I).asGuiItem();
             this.tierIconClickAction(t1G, 1);
 
-            int tierSize = Container.RECIPE_TIER.size();
+            int tierSize = registry.recipeTier().size();
             if (tierSize == 1) {
                 gui.setItem(4, t1G);
             } else {
-                ItemStack t2I = tierEntries.get(1).getValue();
+                ItemStack t2I = tierPages.tier(1).icon();
                 GuiItem t2G = ItemBuilder.from(t2I).asGuiItem();
                 gui.setItem(1, t1G);
                 this.tierIconClickAction(t2G, 2);
@@ -67,7 +74,7 @@ public class RecipesPreviewGui extends GuiBase<PaginatedGui> {
                 if (tierSize == 2) {
                     gui.setItem(7, t2G);
                 } else {
-                    ItemStack t3I = tierEntries.get(2).getValue();
+                    ItemStack t3I = tierPages.tier(2).icon();
                     GuiItem t3G = ItemBuilder.from(t3I).asGuiItem();
                     this.tierIconClickAction(t3G, 3);
 
@@ -75,7 +82,7 @@ public class RecipesPreviewGui extends GuiBase<PaginatedGui> {
                         gui.setItem(4, t2G);
                         gui.setItem(7, t3G);
                     } else {
-                        ItemStack t4I = tierEntries.get(3).getValue();
+                        ItemStack t4I = tierPages.tier(3).icon();
                         GuiItem t4G = ItemBuilder.from(t4I).asGuiItem();
                         this.tierIconClickAction(t4G, 4);
 
@@ -97,70 +104,23 @@ public class RecipesPreviewGui extends GuiBase<PaginatedGui> {
         });
     }
 
-    private void updateRecipesShowcase(final PaginatedGui gui) {
-        Map.Entry<String, ItemStack> tierEntry;
-        switch (currentTier) {
-            case 1 -> tierEntry = tierEntries.get(0);
-            case 2 -> tierEntry = tierEntries.get(1);
-            case 3 -> tierEntry = tierEntries.get(2);
-            case 4 -> tierEntry = tierEntries.get(3);
-            default -> throw new IllegalStateException();
-        }
-
-        Map<String, ItemStack> recipeDisplayItem = Container.RECIPE_DISPLAY_ITEMS.get(tierEntry.getKey());
+    private void updateRecipesShowcase(final Gui gui) {
+        if (currentTier < 1 || currentTier > 4) throw new IllegalStateException();
 
-        gui.clearPageItems(recipeDisplayItem == null);
-
-        if (recipeDisplayItem == null) {
-            this.updateTitle();
-            GuiUtils.updateButtonState(this, 46, 52).accept(gui);
-            return;
-        }
-
-        recipeDisplayItem.forEach((key, itemStack) -> {
-            GuiItem item = new GuiItem(itemStack);
-            item.setAction(event -> {
-                HumanEntity player = event.getWhoClicked();
-                this.toNext = true;
-                // to next gui
-                RecipesDetailGui.open(player, key, barrelLocation);
-            });
-            gui.addItem(item);
-        });
+        // the items are shared by every preview gui, clicks are resolved in topClick
+        pages.items(tierPages.tier(currentTier - 1).items());
 
         this.updateTitle();
         GuiUtils.updateButtonState(this, 46, 52).accept(gui);
     }
 
     private void updateTitle() {
-        Component title = gui.title();
-        int size = Container.RECIPE_TIER.size();
-        switch (size) {
-            case 1 -> title = title.append(selectedSlotIndex4);
-            case 2, 3, 4 -> {
-                if (currentTier == 1) title = title.append(selectedSlotIndex1);
-                if (size == 2 && currentTier == 2) title = title.append(selectedSlotIndex7);
-                if (size == 3) {
-                    switch (currentTier) {
-                        case 2 -> title = title.append(selectedSlotIndex4);
-                        case 3 -> title = title.append(selectedSlotIndex7);
-                    }
-                }
-                if (size == 4) {
-                    switch (currentTier) {
-                        case 2 -> title = title.append(selectedSlotIndex3);
-                        case 3 -> title = title.append(selectedSlotIndex5);
-                        case 4 -> title = title.append(selectedSlotIndex7);
-                    }
-                }
-            }
-            default -> throw new BrewingInternalException();
-        }
-
-        updateTitle(title);
+        int size = registry.recipeTier().size();
+        if (size < 1 || size > 4) throw new BrewingInternalException();
+        updateTitle(TITLES[size - 1][currentTier]);
     }
 
-    private Component getRecipePreviewGuiTitle(Amount amount) {
+    private static Component getRecipePreviewGuiTitle(Amount amount) {
         switch (amount) {
             case x1 -> {
                 return GuiUtils.getTitle(NEGATIVE_10, RECIPES_PREVIEW_CONTAINER, GAP_REGULAR, RECIPES_PREVIEW_CONTAINER_LVL3, GAP_REGULAR, RECIPES_PREVIEW_CONTAINER_LVL1);
@@ -178,23 +138,41 @@ public class RecipesPreviewGui extends GuiBase<PaginatedGui> {
         }
     }
 
+    // the icon of the selected tier, by the count of tiers and their layout in tierIcon
+    private static Component selectedSlot(int size, int tier) {
+        return switch (size) {
+            case 1 -> selectedSlotIndex4;
+            case 2 -> tier == 1 ? selectedSlotIndex1 : selectedSlotIndex7;
+            case 3 -> switch (tier) {
+                case 1 -> selectedSlotIndex1;
+                case 2 -> selectedSlotIndex4;
+                default -> selectedSlotIndex7;
+            };
+            default -> switch (tier) {
+                case 1 -> selectedSlotIndex1;
+                case 2 -> selectedSlotIndex3;
+                case 3 -> selectedSlotIndex5;
+                default -> selectedSlotIndex7;
+            };
+        };
+    }
+
+    private static Component[][] titles() {
+        Component[][] titles = new Component[4][];
+        for (int size = 1; size <= 4; size++) {
+            Component base = getRecipePreviewGuiTitle(Amount.values()[size - 1]);
+            titles[size - 1] = new Component[size + 1];
+            titles[size - 1][0] = base;
+            for (int tier = 1; tier <= size; tier++) titles[size - 1][tier] = base.append(selectedSlot(size, tier));
+        }
+        return titles;
+    }
+
     @Override
     protected Component title() {
-        switch (Container.RECIPE_TIER.size()) { // npe
-            case 1 -> {
-                return getRecipePreviewGuiTitle(Amount.x1);
-            }
-            case 2 -> {
-                return getRecipePreviewGuiTitle(Amount.x2);
-            }
-            case 3 -> {
-                return getRecipePreviewGuiTitle(Amount.x3);
-            }
-            case 4 -> {
-                return getRecipePreviewGuiTitle(Amount.x4);
-            }
-            default -> throw new IllegalStateException();
-        }
+        int size = registry.recipeTier().size();
+        if (size < 1 || size > 4) throw new IllegalStateException();
+        return TITLES[size - 1][0];
     }
 
     @Override
@@ -215,7 +193,7 @@ public class RecipesPreviewGui extends GuiBase<PaginatedGui> {
     }
 
     @Override
-    protected List<Consumer<PaginatedGui>> consumers() {
+    protected List<Consumer<Gui>> consumers() {
         return Arrays.asList(
                 tierIcon(),
                 GuiUtils.guiButtonConsumer(this, 46, 52),
@@ -224,18 +202,31 @@ public class RecipesPreviewGui extends GuiBase<PaginatedGui> {
     }
 
     @Override
-    protected Consumer<PaginatedGui> openGuiAction() {
-        return gui -> gui.setOpenGuiAction(event -> GuiUtils.updateButtonState(this, 46, 52).accept(gui));
+    protected void topClick(InventoryClickEvent event) {
+        int index = pages.slotIndex(event.getRawSlot());
+        if (index < 0) return;
+
+        String recipe = tierPages.recipe(currentTier - 1, pages.page() * pages.size() + index);
+        if (recipe == null) return;
+        this.toNext = true;
+        // to next gui
+        RecipesDetailGui.open(event.getWhoClicked(), recipe, barrelLocation);
     }
 
     @Override
-    protected void open(HumanEntity player, int openPage) {
-        GuiUtils.paginatedGuiOpen(gui, player, openPage);
+    protected Consumer<Gui> openGuiAction() {
+        return gui -> gui.setOpenGuiAction(event -> GuiUtils.updateButtonState(this, 46, 52).accept(gui));
     }
 
-    private final Component selectedSlotIndex1 = GuiUtils.getTitle(NEGATIVE_130, NEGATIVE_18, NEGATIVE_9, NEGATIVE_5, PREVIEW_SLOT_SELECTED);
-    private final Component selectedSlotIndex3 = GuiUtils.getTitle(NEGATIVE_66, NEGATIVE_34, NEGATIVE_18, NEGATIVE_8, PREVIEW_SLOT_SELECTED);
-    private final Component selectedSlotIndex4 = GuiUtils.getTitle(NEGATIVE_66, NEGATIVE_34, NEGATIVE_6, PREVIEW_SLOT_SELECTED);
-    private final Component selectedSlotIndex5 = GuiUtils.getTitle(NEGATIVE_66, NEGATIVE_18, NEGATIVE_4, PREVIEW_SLOT_SELECTED);
-    private final Component selectedSlotIndex7 = GuiUtils.getTitle(NEGATIVE_34, NEGATIVE_10, NEGATIVE_8, PREVIEW_SLOT_SELECTED);
+    private final static Component selectedSlotIndex1 = GuiUtils.getTitle(NEGATIVE_130, NEGATIVE_18, NEGATIVE_9, NEGATIVE_5, PREVIEW_SLOT_SELECTED);
+    private final static Component selectedSlotIndex3 = GuiUtils.getTitle(NEGATIVE_66, NEGATIVE_34, NEGATIVE_18, NEGATIVE_8, PREVIEW_SLOT_SELECTED);
+    private final static Component selectedSlotIndex4 = GuiUtils.getTitle(NEGATIVE_66, NEGATIVE_34, NEGATIVE_6, PREVIEW_SLOT_SELECTED);
+    private final static Component selectedSlotIndex5 = GuiUtils.getTitle(NEGATIVE_66, NEGATIVE_18, NEGATIVE_4, PREVIEW_SLOT_SELECTED);
+    private final static Component selectedSlotIndex7 = GuiUtils.getTitle(NEGATIVE_34, NEGATIVE_10, NEGATIVE_8, PREVIEW_SLOT_SELECTED);
+
+    /**
+     * tier count - 1 - {without selection, tier 1 selected, ...}, built once so a tier switch only
+     * picks an instance, see {@link GuiBase#updateTitle(Component)}
+     */
+    private final static Component[][] TITLES = titles();
 }
\ No newline at end of file
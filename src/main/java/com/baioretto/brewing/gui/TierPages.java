@@ -0,0 +1,85 @@
+package com.baioretto.brewing.gui;
+
+import com.baioretto.brewing.registry.BrewingRegistry;
+import com.google.common.collect.ImmutableList;
+import dev.triumphteam.gui.guis.GuiItem;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * The recipe showcase of every tier, built once per registry version and shared by every preview gui.
+ *
+ * <p><pre>
+ *  tier   -----  icon, recipe ids in display order, one gui item per recipe
+ *  </pre>
+ * The gui items carry no action, a click is mapped back to the recipe through its position in
+ * the tier, see {@link #recipe(int, int)}. Switching tiers hands the same items to the gui again
+ * instead of building new ones, {@link GuiPages} splits them into pages. Only touched on the main
+ * thread.
+ */
+public final class TierPages {
+    private static @Nullable TierPages current;
+
+    private final long version;
+    private final ImmutableList<Tier> tiers;
+
+    private TierPages(long version, ImmutableList<Tier> tiers) {
+        this.version = version;
+        this.tiers = tiers;
+    }
+
+    /**
+     * @return the pages of the registry, built on the first call for its version
+     */
+    public static TierPages of(BrewingRegistry registry) {
+        TierPages pages = current;
+        if (pages != null && pages.version == registry.version()) return pages;
+
+        ImmutableList.Builder<Tier> tiers = ImmutableList.builder();
+        registry.recipeTier().forEach((level, icon) -> {
+            Map<String, ItemStack> displayItems = registry.recipeDisplayItems().get(level);
+            ImmutableList.Builder<String> recipes = ImmutableList.builder();
+            ImmutableList.Builder<GuiItem> items = ImmutableList.builder();
+            if (displayItems != null) {
+                displayItems.forEach((id, itemStack) -> {
+                    recipes.add(id);
+                    items.add(new GuiItem(itemStack));
+                });
+            }
+            tiers.add(new Tier(level, icon, recipes.build(), items.build()));
+        });
+        pages = new TierPages(registry.version(), tiers.build());
+        current = pages;
+        return pages;
+    }
+
+    public ImmutableList<Tier> tiers() {
+        return tiers;
+    }
+
+    /**
+     * @param tier tier index, 0 for the first tier
+     */
+    public Tier tier(int tier) {
+        return tiers.get(tier);
+    }
+
+    /**
+     * @param tier     tier index
+     * @param position position of the item in the tier
+     * @return the recipe shown there, null past the last one
+     */
+    public @Nullable String recipe(int tier, int position) {
+        if (tier < 0 || tier >= tiers.size()) return null;
+        ImmutableList<String> recipes = tiers.get(tier).recipes();
+        return position >= 0 && position < recipes.size() ? recipes.get(position) : null;
+    }
+
+    /**
+     * @param items one action-less gui item per recipe, in the order of {@code recipes}
+     */
+    public record Tier(String level, ItemStack icon, ImmutableList<String> recipes, ImmutableList<GuiItem> items) {
+    }
+}
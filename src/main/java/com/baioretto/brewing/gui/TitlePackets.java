@@ -0,0 +1,95 @@
+package com.baioretto.brewing.gui;
+
+import com.baioretto.brewing.Brewing;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.ProtocolManager;
+import com.comphenix.protocol.events.ListenerPriority;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.wrappers.WrappedChatComponent;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Changes the title of an open window by sending its open window packet again with another title.
+ *
+ * <p>The last open window packet sent to every player is kept, it carries the container id and
+ * the menu type of the window on screen. A copy with the new title makes the client redraw the
+ * window under the same container id, the server side container, its viewers and the cursor item
+ * stay as they are. Only loaded when ProtocolLib is enabled, see {@link GuiBase}.
+ */
+final class TitlePackets {
+    private final ProtocolManager protocol = ProtocolLibrary.getProtocolManager();
+
+    /**
+     * player - last open window packet sent to them
+     */
+    private final Map<UUID, PacketContainer> openWindows = new ConcurrentHashMap<>();
+
+    /**
+     * title - its chat component, there is one title per selection state
+     */
+    private final Map<Component, WrappedChatComponent> titles = new ConcurrentHashMap<>();
+
+    private TitlePackets() {
+        // sent from the main thread and from netty, kept until the next window or the quit
+        protocol.addPacketListener(new PacketAdapter(Brewing.instance(), ListenerPriority.MONITOR, PacketType.Play.Server.OPEN_WINDOW) {
+            @Override
+            public void onPacketSending(PacketEvent event) {
+                if (event.isCancelled() || event.isPlayerTemporary()) return;
+                openWindows.put(event.getPlayer().getUniqueId(), event.getPacket());
+            }
+        });
+    }
+
+    static TitlePackets create() {
+        return new TitlePackets();
+    }
+
+    /**
+     * @return false if no window of the player is known, the caller falls back to opening again
+     */
+    boolean update(HumanEntity player, Component title) {
+        if (!(player instanceof Player online)) return false;
+        PacketContainer openWindow = openWindows.get(player.getUniqueId());
+        if (openWindow == null) return false;
+
+        PacketContainer packet = openWindow.shallowClone();
+        packet.getChatComponents().write(0, titles.computeIfAbsent(title, key -> WrappedChatComponent.fromJson(json(key).toString())));
+        try {
+            protocol.sendServerPacket(online, packet);
+        } catch (Exception e) {
+            return false;
+        }
+        // the client empties a window it opens, its contents are sent again
+        online.updateInventory();
+        return true;
+    }
+
+    void quit(HumanEntity player) {
+        openWindows.remove(player.getUniqueId());
+    }
+
+    // titles are text built by GuiUtils.getTitle, only content, color and children are carried over
+    private static JsonObject json(Component component) {
+        JsonObject json = new JsonObject();
+        json.addProperty("text", component instanceof TextComponent text ? text.content() : "");
+        if (component.color() != null) json.addProperty("color", component.color().asHexString());
+        if (!component.children().isEmpty()) {
+            JsonArray extra = new JsonArray();
+            component.children().forEach(child -> extra.add(json(child)));
+            json.add("extra", extra);
+        }
+        return json;
+    }
+}
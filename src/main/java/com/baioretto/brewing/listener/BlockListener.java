@@ -1,15 +1,14 @@
 package com.baioretto.brewing.listener;
 
-import com.baioretto.brewing.Container;
-import com.baioretto.brewing.bean.OpenedBarrel;
+import com.baioretto.brewing.barrel.BarrelIndex;
+import com.baioretto.brewing.barrel.BarrelSessions;
+import com.baioretto.brewing.barrel.BrewingEngine;
 import com.baioretto.brewing.enumerate.Tag;
 import com.baioretto.brewing.gui.RecipesPreviewGui;
+import com.baioretto.brewing.registry.ItemStamp;
 import com.baioretto.brewing.util.BrewingUtils;
 import de.tr7zw.nbtapi.*;
-import org.bukkit.block.Barrel;
 import org.bukkit.block.Block;
-import org.bukkit.entity.HumanEntity;
-import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -17,20 +16,18 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.inventory.ItemStack;
 
 public class BlockListener implements Listener {
     @EventHandler
     public void onBarrelPlaced(BlockPlaceEvent event) {
-        ItemStack itemInHand = event.getItemInHand();
-        NBTItem nbtItem = new NBTItem(itemInHand);
-        if (!(nbtItem.hasKey(Tag.BARREL.key()) && nbtItem.getObject(Tag.BARREL.key(), Object.class).equals(Tag.BARREL.value()))) return;
+        if (!ItemStamp.isBarrel(event.getItemInHand())) return;
 
         // brewing barrel
         Block block = event.getBlock();
 
         NBTBlock nbtBlock = new NBTBlock(block);
         nbtBlock.getData().setObject(Tag.BARREL.key(), Tag.BARREL.value());
+        BarrelIndex.getInstance().add(block);
     }
 
     @EventHandler
@@ -42,20 +39,14 @@ public class BlockListener implements Listener {
         if (BrewingUtils.notBrewingBarrel(clickedBlock)) return;
 
         event.setCancelled(true);
+        // a brewing barrel reports its progress or hands out its output instead of opening the gui
+        if (BrewingEngine.getInstance().interact(event.getPlayer(), clickedBlock)) return;
+
+        // the session comes first, a shared gui lives in it
+        BarrelSessions.getInstance().open(clickedBlock, event.getPlayer());
+
         //noinspection ConstantConditions
         RecipesPreviewGui.open(event.getPlayer(), clickedBlock.getLocation());
-
-        OpenedBarrel openedBarrel = Container.OPENED_BARREL.get(clickedBlock.getLocation());
-        Player player = event.getPlayer();
-        if (openedBarrel != null) {
-            Container.OPENED_BARREL.replace(clickedBlock.getLocation(), openedBarrel.viewers(player));
-            return;
-        }
-
-        Barrel barrel = (Barrel) clickedBlock.getState();
-        barrel.open();
-        openedBarrel = new OpenedBarrel(barrel).viewers(player);
-        Container.OPENED_BARREL.put(clickedBlock.getLocation(), openedBarrel);
     }
 
     @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
@@ -64,9 +55,18 @@ public class BlockListener implements Listener {
 
         if (BrewingUtils.notBrewingBarrel(block)) return;
 
-        OpenedBarrel openedBarrel = Container.OPENED_BARREL.remove(block.getLocation());
-        if (openedBarrel == null) return;
+        BarrelSessions.getInstance().remove(block);
+    }
+
+    // the break went through, forget the barrel so a block placed here later is not one
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBarrelRemoved(BlockBreakEvent event) {
+        Block block = event.getBlock();
+
+        if (BrewingUtils.notBrewingBarrel(block)) return;
 
-        openedBarrel.viewers().forEach(HumanEntity::closeInventory);
+        BrewingEngine.getInstance().finish(block);
+        BarrelIndex.getInstance().remove(block);
+        new NBTBlock(block).getData().removeKey(Tag.BARREL.key());
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.baioretto.brewing.listener;
+
+import com.baioretto.brewing.barrel.BarrelIndex;
+import com.baioretto.brewing.barrel.BarrelSessions;
+import com.baioretto.brewing.barrel.BrewingEngine;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+// keeps the barrel index, sessions and brewing states in line with the loaded chunks
+public class ChunkListener implements Listener {
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoaded(ChunkLoadEvent event) {
+        if (event.isNewChunk()) return;
+        BarrelIndex.getInstance().indexChunk(event.getChunk());
+        BrewingEngine.getInstance().loadChunk(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnloaded(ChunkUnloadEvent event) {
+        BarrelSessions.getInstance().unloadChunk(event.getChunk());
+        BrewingEngine.getInstance().unloadChunk(event.getChunk());
+        BarrelIndex.getInstance().unloadChunk(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnloaded(WorldUnloadEvent event) {
+        BarrelSessions.getInstance().unloadWorld(event.getWorld());
+        BrewingEngine.getInstance().unloadWorld(event.getWorld());
+        BarrelIndex.getInstance().unloadWorld(event.getWorld());
+    }
+}
@@ -0,0 +1,14 @@
+package com.baioretto.brewing.listener;
+
+import com.baioretto.brewing.barrel.BarrelAutomation;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+
+public class InventoryListener implements Listener {
+    // fires for every item a hopper moves, anything that is no brewing barrel leaves after two type checks
+    @EventHandler(ignoreCancelled = true)
+    public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        BarrelAutomation.getInstance().move(event);
+    }
+}
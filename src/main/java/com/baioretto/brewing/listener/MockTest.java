@@ -2,7 +2,7 @@ package com.baioretto.brewing.listener;
 
 import dev.triumphteam.gui.components.util.ItemNbt;
 import dev.triumphteam.gui.guis.GuiItem;
-import dev.triumphteam.gui.guis.PaginatedGui;
+import dev.triumphteam.gui.guis.BaseGui;
 import lombok.SneakyThrows;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
@@ -15,7 +15,7 @@ public class MockTest implements Listener {
     // @EventHandler
     @SneakyThrows
     public void onPlayerClick(InventoryClickEvent event) {
-        if (!(event.getInventory().getHolder() instanceof PaginatedGui gui)) return;
+        if (!(event.getInventory().getHolder() instanceof BaseGui gui)) return;
 
         // System.out.println("event: " + event.getInventory());
         // System.out.println("gui: " + gui.getInventory());
@@ -0,0 +1,34 @@
+package com.baioretto.brewing.listener;
+
+import com.baioretto.brewing.Container;
+import com.baioretto.brewing.barrel.BarrelSessions;
+import com.baioretto.brewing.gui.GuiSessions;
+import com.baioretto.brewing.registry.BrewingRegistry;
+import com.baioretto.brewing.registry.ItemStamp;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+public class PlayerListener implements Listener {
+    // items carried over from older versions or an older catalog get their stamp once, on join
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        BrewingRegistry registry = Container.registry();
+        PlayerInventory inventory = event.getPlayer().getInventory();
+        ItemStack[] contents = inventory.getContents();
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (ItemStamp.migrate(contents[slot], registry)) inventory.setItem(slot, contents[slot]);
+        }
+    }
+
+    // the gui close action normally ends the session first, this catches a quit that skipped it
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        BarrelSessions.getInstance().quit(event.getPlayer());
+        GuiSessions.getInstance().quit(event.getPlayer());
+    }
+}
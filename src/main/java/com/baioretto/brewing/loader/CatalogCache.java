@@ -0,0 +1,462 @@
+package com.baioretto.brewing.loader;
+
+import com.baioretto.brewing.Brewing;
+import com.baioretto.brewing.bean.ItemProperties;
+import com.baioretto.brewing.bean.RecipeProperties;
+import com.baioretto.brewing.enumerate.Provider;
+import com.baioretto.brewing.enumerate.Type;
+import com.baioretto.brewing.registry.BrewingRegistry;
+import com.baioretto.brewing.registry.ItemKey;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.potion.PotionEffectType;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// compiled binary form of the item and recipe catalog, keyed by a hash of every input file
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class CatalogCache {
+    private static final int MAGIC = 0x42524557;
+    private static final int FORMAT_VERSION = 4;
+
+    private final Logger logger = Brewing.instance().getLogger();
+
+    private final File dataFolder = Brewing.instance().getDataFolder();
+    private final File cacheFile = new File(dataFolder, "cache/catalog.bin");
+
+    /**
+     * milliseconds the yaml load took that built the cache last read, -1 if unknown
+     */
+    private long yamlMillis = -1L;
+
+    // region hash input files
+    /**
+     * @return sha-256 of the format version, plugin version, server version and every input file, null if a file can not be read
+     */
+    public @Nullable byte[] hash(List<File> inputs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.format("%d|%s|%s", FORMAT_VERSION, Brewing.instance().getDescription().getVersion(), Bukkit.getBukkitVersion()).getBytes(StandardCharsets.UTF_8));
+            for (File file : inputs) {
+                digest.update(dataFolder.toPath().relativize(file.toPath()).toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(Files.readAllBytes(file.toPath()));
+            }
+            return digest.digest();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.warning("Failed to hash config files, the catalog cache is skipped: " + e);
+            return null;
+        }
+    }
+    // endregion
+
+    // region read cache
+    /**
+     * @return a filled registry builder, null when the cache is missing, stale or broken
+     */
+    public @Nullable BrewingRegistry.Builder read(byte[] hash) {
+        if (!cacheFile.isFile()) return null;
+
+        try {
+            byte[] bytes = Files.readAllBytes(cacheFile.toPath());
+            if (bytes.length < Long.BYTES) return null;
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - Long.BYTES);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            in.skipNBytes(bytes.length - Long.BYTES);
+            if (in.readLong() != crc.getValue()) {
+                logger.warning("The catalog cache is corrupted, loading from yaml");
+                return null;
+            }
+
+            in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Long.BYTES));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return null;
+            byte[] stored = new byte[in.readInt()];
+            in.readFully(stored);
+            if (!Arrays.equals(stored, hash)) return null;
+            yamlMillis = in.readLong();
+
+            return readCatalog(in);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("Failed to read the catalog cache, loading from yaml: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * @return milliseconds the yaml load took that built the cache last read, -1 if unknown
+     */
+    public long yamlMillis() {
+        return yamlMillis;
+    }
+
+    private BrewingRegistry.Builder readCatalog(DataInputStream in) throws IOException {
+        BrewingRegistry.Builder builder = BrewingRegistry.builder();
+
+        for (int i = in.readInt(); i > 0; i--) {
+            builder.itemTier().put(in.readUTF(), readContent(in));
+        }
+
+        Map<String, String> recipeTier = new TreeMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            recipeTier.put(in.readUTF(), in.readUTF());
+        }
+
+        ItemPropertiesLoader itemPropertiesLoader = ItemPropertiesLoader.instance();
+        Map<File, List<ItemProperties>> itemPropertiesByFile = itemPropertiesLoader.itemPropertiesByFile();
+        itemPropertiesByFile.clear();
+        for (int i = in.readInt(); i > 0; i--) {
+            File file = new File(dataFolder, in.readUTF());
+            int size = in.readInt();
+            List<ItemProperties> items = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                items.add(readItem(in));
+            }
+            itemPropertiesByFile.put(file, items);
+        }
+        itemPropertiesLoader.itemPropertiesSet().clear();
+        itemPropertiesByFile.values().forEach(itemPropertiesLoader.itemPropertiesSet()::addAll);
+
+        ItemStackLoader.getInstance().convertPropertiesToItemStack(builder);
+        TierLoader.getInstance().applyRecipeTier(builder, recipeTier);
+
+        for (int i = in.readInt(); i > 0; i--) {
+            RecipeProperties recipe = readRecipe(in, builder);
+            builder.recipeProperties().put(recipe.id(), recipe);
+        }
+
+        Map<File, List<String>> recipeIdsByFile = RecipePropertiesLoader.getInstance().recipeIdsByFile();
+        recipeIdsByFile.clear();
+        for (int i = in.readInt(); i > 0; i--) {
+            File file = new File(dataFolder, in.readUTF());
+            recipeIdsByFile.put(file, readStrings(in));
+        }
+
+        ItemStackLoader.getInstance().convertRecipeToItemStack(builder);
+        return builder;
+    }
+
+    private ItemProperties readItem(DataInputStream in) throws IOException {
+        ItemProperties.ItemPropertiesBuilder builder = ItemProperties.builder()
+                .id(in.readUTF())
+                .type(Type.valueOf(in.readUTF()))
+                .provider(Provider.valueOf(in.readUTF()))
+                .display(readNullableContent(in))
+                .lore(readContents(in))
+                .tier(readNullableString(in));
+
+        String materialName = in.readUTF();
+        Material material = Material.getMaterial(materialName);
+        if (material == null) throw new IllegalStateException("Unknown material " + materialName);
+
+        builder.material(material)
+                .customModelData(in.readInt())
+                .restoreFood(in.readInt())
+                .restoreHealth(in.readDouble())
+                .restoreSaturation(in.readFloat());
+
+        int effectSize = in.readInt();
+        if (effectSize >= 0) {
+            ArrayList<ItemProperties.Effect> effects = new ArrayList<>(effectSize);
+            for (int i = 0; i < effectSize; i++) {
+                String potionName = in.readUTF();
+                PotionEffectType potionType = PotionEffectType.getByName(potionName);
+                if (potionType == null) throw new IllegalStateException("Unknown potion effect " + potionName);
+                effects.add(ItemProperties.getEffect()
+                        .potionType(potionType)
+                        .duration(in.readInt())
+                        .amplifier(in.readInt())
+                        .ambient(in.readBoolean())
+                        .showParticles(in.readBoolean())
+                        .showIcon(in.readBoolean()));
+            }
+            builder.effects(effects);
+        }
+
+        return builder.command(readStrings(in))
+                .requiredLevel(in.readInt())
+                .build();
+    }
+
+    private RecipeProperties readRecipe(DataInputStream in, BrewingRegistry.Builder registry) throws IOException {
+        RecipeProperties.RecipePropertiesBuilder builder = RecipeProperties.builder()
+                .id(in.readUTF())
+                .level(in.readUTF())
+                .display(readContent(in))
+                .lore(readContents(in));
+
+        int[] substrates = readIds(in, registry, Type.SUBSTRATE);
+        int[] containers = readIds(in, registry, Type.CONTAINER);
+        readCustomItems(in, registry, builder, true);
+        readCustomItems(in, registry, builder, false);
+
+        return builder.substrates(substrates)
+                .containers(containers)
+                .output(resolve(registry, Type.OUTPUT, in.readUTF()))
+                .minYield(in.readInt())
+                .maxYield(in.readInt())
+                .cycle(in.readInt())
+                .build();
+    }
+
+    private void readCustomItems(DataInputStream in, BrewingRegistry.Builder registry, RecipeProperties.RecipePropertiesBuilder builder, boolean yeast) throws IOException {
+        int size = in.readInt();
+        int[] ids = new int[size];
+        double[] amplify = new double[size];
+        for (int i = 0; i < size; i++) {
+            Type type = Type.valueOf(in.readUTF());
+            ids[i] = resolve(registry, type, in.readUTF());
+            amplify[i] = in.readDouble();
+        }
+        if (yeast) builder.yeasts(ids, amplify);
+        else builder.extras(ids, amplify);
+    }
+
+    private int[] readIds(DataInputStream in, BrewingRegistry.Builder registry, Type type) throws IOException {
+        int[] ids = new int[in.readInt()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = resolve(registry, type, in.readUTF());
+        }
+        return ids;
+    }
+
+    private int resolve(BrewingRegistry.Builder registry, Type type, String id) {
+        int itemId = registry.itemId(type, id);
+        if (itemId < 0) throw new IllegalStateException(String.format("Unknown %s item %s", type.getString(), id));
+        return itemId;
+    }
+    // endregion
+
+    // region write cache
+    /**
+     * @param yamlMillis milliseconds the yaml load of the catalog took, shown next to the time of a cache hit
+     */
+    public void write(byte[] hash, BrewingRegistry.Builder builder, long yamlMillis) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(hash.length);
+            out.write(hash);
+            out.writeLong(yamlMillis);
+
+            out.writeInt(builder.itemTier().size());
+            for (Map.Entry<String, ItemProperties.Content> entry : builder.itemTier().entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeContent(out, entry.getValue());
+            }
+
+            Map<String, String> recipeTier = builder.tierItemByLevel();
+            out.writeInt(recipeTier.size());
+            for (Map.Entry<String, String> entry : recipeTier.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+
+            // items are grouped by the file they came from, so a later incremental reload knows what each file owns
+            Map<File, List<ItemProperties>> itemPropertiesByFile = ItemPropertiesLoader.instance().itemPropertiesByFile();
+            out.writeInt(itemPropertiesByFile.size());
+            for (Map.Entry<File, List<ItemProperties>> entry : itemPropertiesByFile.entrySet()) {
+                out.writeUTF(relativePath(entry.getKey()));
+                out.writeInt(entry.getValue().size());
+                for (ItemProperties itemProperties : entry.getValue()) {
+                    writeItem(out, itemProperties);
+                }
+            }
+
+            out.writeInt(builder.recipeProperties().size());
+            for (RecipeProperties recipe : builder.recipeProperties().values()) {
+                writeRecipe(out, recipe, builder);
+            }
+
+            Map<File, List<String>> recipeIdsByFile = RecipePropertiesLoader.getInstance().recipeIdsByFile();
+            out.writeInt(recipeIdsByFile.size());
+            for (Map.Entry<File, List<String>> entry : recipeIdsByFile.entrySet()) {
+                out.writeUTF(relativePath(entry.getKey()));
+                writeStrings(out, entry.getValue());
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeLong(crc.getValue());
+        } catch (IOException e) {
+            logger.warning("Failed to build the catalog cache: " + e);
+            return;
+        }
+
+        try {
+            Files.createDirectories(cacheFile.getParentFile().toPath());
+            File temp = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+            Files.write(temp.toPath(), bytes.toByteArray());
+            Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Failed to write the catalog cache: " + e);
+        }
+    }
+
+    private void writeItem(DataOutputStream out, ItemProperties itemProperties) throws IOException {
+        out.writeUTF(itemProperties.id());
+        out.writeUTF(itemProperties.type().name());
+        out.writeUTF(itemProperties.provider().name());
+        writeNullableContent(out, itemProperties.display());
+        writeContents(out, itemProperties.lore());
+        writeNullableString(out, itemProperties.tier());
+        out.writeUTF(itemProperties.material().name());
+        out.writeInt(itemProperties.customModelData());
+        out.writeInt(itemProperties.restoreFood());
+        out.writeDouble(itemProperties.restoreHealth());
+        out.writeFloat(itemProperties.restoreSaturation());
+
+        ArrayList<ItemProperties.Effect> effects = itemProperties.effects();
+        out.writeInt(effects == null ? -1 : effects.size());
+        if (effects != null) {
+            for (ItemProperties.Effect effect : effects) {
+                out.writeUTF(effect.potionType().getName());
+                out.writeInt(effect.duration());
+                out.writeInt(effect.amplifier());
+                out.writeBoolean(effect.ambient());
+                out.writeBoolean(effect.showParticles());
+                out.writeBoolean(effect.showIcon());
+            }
+        }
+
+        writeStrings(out, itemProperties.command());
+        out.writeInt(itemProperties.requiredLevel());
+    }
+
+    // ids are only stable within one run, the cache stores the item keys
+    private void writeRecipe(DataOutputStream out, RecipeProperties recipe, BrewingRegistry.Builder builder) throws IOException {
+        List<ItemKey> itemKeys = builder.itemKeys();
+        out.writeUTF(recipe.id());
+        out.writeUTF(recipe.level());
+        writeContent(out, recipe.display());
+        writeContents(out, recipe.lore());
+        writeIds(out, itemKeys, recipe.substrates());
+        writeIds(out, itemKeys, recipe.containers());
+        writeCustomItems(out, itemKeys, recipe.yeasts(), recipe.yeastAmplify());
+        writeCustomItems(out, itemKeys, recipe.extras(), recipe.extraAmplify());
+        out.writeUTF(itemKeys.get(recipe.output()).id());
+        out.writeInt(recipe.minYield());
+        out.writeInt(recipe.maxYield());
+        out.writeInt(recipe.cycle());
+    }
+
+    private void writeIds(DataOutputStream out, List<ItemKey> itemKeys, int[] ids) throws IOException {
+        out.writeInt(ids.length);
+        for (int id : ids) {
+            out.writeUTF(itemKeys.get(id).id());
+        }
+    }
+
+    private void writeCustomItems(DataOutputStream out, List<ItemKey> itemKeys, int[] ids, double[] amplify) throws IOException {
+        out.writeInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ItemKey key = itemKeys.get(ids[i]);
+            out.writeUTF(key.type().name());
+            out.writeUTF(key.id());
+            out.writeDouble(amplify[i]);
+        }
+    }
+    // endregion
+
+    // region primitives
+    private String relativePath(File file) {
+        return dataFolder.toPath().relativize(file.toPath()).toString();
+    }
+
+    private ItemProperties.Content readContent(DataInputStream in) throws IOException {
+        ItemProperties.Content content = ItemProperties.getContent().text(in.readUTF());
+        if (in.readBoolean()) {
+            content.color(new ArrayList<>(Arrays.asList(in.readInt(), in.readInt(), in.readInt())));
+        }
+        return content;
+    }
+
+    private void writeContent(DataOutputStream out, ItemProperties.Content content) throws IOException {
+        out.writeUTF(content.text());
+        ArrayList<Integer> color = content.color();
+        out.writeBoolean(color != null);
+        if (color != null) {
+            out.writeInt(color.get(0));
+            out.writeInt(color.get(1));
+            out.writeInt(color.get(2));
+        }
+    }
+
+    private @Nullable ItemProperties.Content readNullableContent(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readContent(in) : null;
+    }
+
+    private void writeNullableContent(DataOutputStream out, @Nullable ItemProperties.Content content) throws IOException {
+        out.writeBoolean(content != null);
+        if (content != null) writeContent(out, content);
+    }
+
+    private @Nullable ArrayList<ItemProperties.Content> readContents(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) return null;
+        ArrayList<ItemProperties.Content> contents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            contents.add(readContent(in));
+        }
+        return contents;
+    }
+
+    private void writeContents(DataOutputStream out, @Nullable List<ItemProperties.Content> contents) throws IOException {
+        out.writeInt(contents == null ? -1 : contents.size());
+        if (contents == null) return;
+        for (ItemProperties.Content content : contents) {
+            writeContent(out, content);
+        }
+    }
+
+    private @Nullable ArrayList<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) return null;
+        ArrayList<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(in.readUTF());
+        }
+        return strings;
+    }
+
+    private void writeStrings(DataOutputStream out, @Nullable List<String> strings) throws IOException {
+        out.writeInt(strings == null ? -1 : strings.size());
+        if (strings == null) return;
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    private @Nullable String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void writeNullableString(DataOutputStream out, @Nullable String string) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null) out.writeUTF(string);
+    }
+    // endregion
+
+    // region get instance
+    private static class CacheInstance {
+        static final CatalogCache instance = new CatalogCache();
+    }
+
+    public static CatalogCache getInstance() {
+        return CacheInstance.instance;
+    }
+    // endregion
+}
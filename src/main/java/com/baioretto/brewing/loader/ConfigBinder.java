@@ -0,0 +1,573 @@
+package com.baioretto.brewing.loader;
+
+import com.baioretto.brewing.Brewing;
+import com.baioretto.brewing.bean.ItemProperties;
+import com.baioretto.brewing.bean.RecipeProperties;
+import com.baioretto.brewing.enumerate.Provider;
+import com.baioretto.brewing.enumerate.Type;
+import com.baioretto.brewing.registry.BrewingRegistry;
+import com.baioretto.brewing.util.BrewingUtils;
+import com.google.common.collect.ImmutableMap;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.util.NumberConversions;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Binds a yaml node tree straight onto {@link ItemProperties} and {@link RecipeProperties}.
+ *
+ * <p>Every entry is walked once, enum names are resolved through lookup tables built once, and
+ * problems are collected and reported in one batch by {@link #report()} at the end of a load.
+ * A node is either a {@link ConfigurationSection} or a plain {@link Map}, so the binder works on
+ * both the {@code YamlConfiguration} tree and raw SnakeYAML maps.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class ConfigBinder {
+    private final Logger logger = Brewing.instance().getLogger();
+
+    private final List<String> problems = new ArrayList<>();
+
+    // region lookup tables
+    private static final Map<String, Material> MATERIALS;
+    private static final Map<String, PotionEffectType> POTION_EFFECT_TYPES;
+    private static final Map<String, Provider> PROVIDERS;
+    private static final Map<String, Type> TYPES;
+
+    static {
+        ImmutableMap.Builder<String, Material> materials = ImmutableMap.builder();
+        for (Material material : Material.values()) {
+            //noinspection deprecation
+            if (!material.isLegacy()) materials.put(material.name().toLowerCase(Locale.ROOT), material);
+        }
+        MATERIALS = materials.build();
+
+        Map<String, PotionEffectType> potionEffectTypes = new HashMap<>();
+        for (PotionEffectType potionEffectType : PotionEffectType.values()) {
+            if (potionEffectType != null) potionEffectTypes.put(potionEffectType.getName().toLowerCase(Locale.ROOT), potionEffectType);
+        }
+        POTION_EFFECT_TYPES = ImmutableMap.copyOf(potionEffectTypes);
+
+        ImmutableMap.Builder<String, Provider> providers = ImmutableMap.builder();
+        for (Provider provider : Provider.values()) {
+            providers.put(provider.name().toLowerCase(Locale.ROOT), provider);
+        }
+        PROVIDERS = providers.build();
+
+        ImmutableMap.Builder<String, Type> types = ImmutableMap.builder();
+        for (Type type : Type.values()) {
+            types.put(type.name().toLowerCase(Locale.ROOT), type);
+        }
+        TYPES = types.build();
+    }
+
+    public @Nullable Type type(String name) {
+        return TYPES.get(name.toLowerCase(Locale.ROOT));
+    }
+    // endregion
+
+    // region bind item
+    /**
+     * @param path path of the item node, for example {@code substrate.grape}
+     * @return the bound item, null if a required key is missing or incorrect
+     */
+    public @Nullable ItemProperties bindItem(final File file, final String path, final String id, final Type type, final Object node, final Map<String, ItemProperties.Content> itemTier) {
+        Map<?, ?> map = asMap(node);
+        if (map == null) {
+            missing(file, path);
+            return null;
+        }
+
+        Material material = null;
+        Provider provider = null;
+        ItemProperties.Content display = null;
+        ArrayList<ItemProperties.Content> lore = null;
+        String tier = null;
+        int customModelData = 0;
+        int restoreFood = 0;
+        double restoreHealth = 0.0D;
+        float restoreSaturation = 0.0F;
+        ArrayList<ItemProperties.Effect> effects = null;
+        boolean effectFailed = false;
+        ArrayList<String> command = null;
+        int requiredLevel = 0;
+
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case KEY_MATERIAL -> material = lookup(file, path, KEY_MATERIAL, value, MATERIALS);
+                case KEY_PROVIDER -> provider = lookup(file, path, KEY_PROVIDER, value, PROVIDERS);
+                case KEY_DISPLAY -> display = bindDisplay(file, BrewingUtils.getPath(path, KEY_DISPLAY), value);
+                case KEY_LORE -> lore = bindLore(file, BrewingUtils.getPath(path, KEY_LORE), value);
+                case KEY_ITEM_TIER -> tier = bindTier(file, path, value, itemTier);
+                case KEY_CUSTOM_MODEL_DATA -> customModelData = NumberConversions.toInt(value);
+                case KEY_RESTORE -> {
+                    Map<?, ?> restore = asMap(value);
+                    if (restore == null) break;
+                    restoreFood = NumberConversions.toInt(restore.get(KEY_FOOD));
+                    restoreHealth = NumberConversions.toDouble(restore.get(KEY_HEALTH));
+                    restoreSaturation = NumberConversions.toFloat(restore.get(KEY_SATURATION));
+                }
+                case KEY_EFFECT -> {
+                    int problemCount = problems.size();
+                    effects = bindEffects(file, BrewingUtils.getPath(path, KEY_EFFECT), value);
+                    effectFailed = problems.size() != problemCount;
+                }
+                case KEY_COMMAND -> command = bindStrings(value);
+                case KEY_REQUIRED_LEVEL -> requiredLevel = NumberConversions.toInt(value);
+                default -> {
+                }
+            }
+        }
+
+        if (material == null && !map.containsKey(KEY_MATERIAL)) missing(file, BrewingUtils.getPath(path, KEY_MATERIAL));
+        if (provider == null && !map.containsKey(KEY_PROVIDER)) missing(file, BrewingUtils.getPath(path, KEY_PROVIDER));
+        if (material == null || provider == null) return null;
+
+        if (Type.OUTPUT.equals(type) && !Material.POTION.equals(material)) {
+            problems.add(String.format("The material %s of key %s in %s is not a potion", material, path, file.getAbsolutePath()));
+            return null;
+        }
+
+        ItemProperties.ItemPropertiesBuilder builder = ItemProperties.builder()
+                .id(id)
+                .type(type)
+                .provider(provider)
+                .display(display)
+                .lore(lore)
+                .material(material)
+                .customModelData(customModelData)
+                .tier(tier);
+
+        switch (type) {
+            case TIER -> {}
+            case SUBSTRATE, OUTPUT -> {
+                // a broken effect drops the whole item
+                if (effectFailed) return null;
+                builder.restoreFood(restoreFood)
+                        .restoreHealth(restoreHealth)
+                        .restoreSaturation(restoreSaturation)
+                        .effects(effects)
+                        .command(command)
+                        .requiredLevel(requiredLevel);
+            }
+            case YEAST, CONTAINER -> builder.requiredLevel(requiredLevel);
+        }
+
+        return builder.build();
+    }
+
+    private @Nullable String bindTier(final File file, final String path, final Object value, final Map<String, ItemProperties.Content> itemTier) {
+        if (value == null) return null;
+        String tier = String.valueOf(value);
+        if (itemTier.containsKey(tier)) return tier;
+
+        if (itemTier.isEmpty()) {
+            problems.add("The item-tier is empty. Did you configure it in config.yml?");
+        }
+        problems.add(String.format("The value %s of key %s in %s does not match item-tier sets %s", tier, BrewingUtils.getPath(path, KEY_ITEM_TIER), file.getAbsolutePath(), itemTier.keySet()));
+        return null;
+    }
+
+    private @Nullable ArrayList<ItemProperties.Effect> bindEffects(final File file, final String path, final Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) return null;
+
+        ArrayList<ItemProperties.Effect> effects = new ArrayList<>(list.size());
+        for (int index = 0; index < list.size(); index++) {
+            String effectPath = path + "[" + index + "]";
+            Map<?, ?> effect = asMap(list.get(index));
+            if (effect == null) {
+                incorrect(file, effectPath, list.get(index));
+                return null;
+            }
+
+            Object potionTypeValue = effect.get(KEY_POTION_TYPE);
+            if (potionTypeValue == null) {
+                missing(file, BrewingUtils.getPath(effectPath, KEY_POTION_TYPE));
+                return null;
+            }
+            PotionEffectType potionType = lookup(file, effectPath, KEY_POTION_TYPE, potionTypeValue, POTION_EFFECT_TYPES);
+            if (potionType == null) return null;
+
+            effects.add(ItemProperties.getEffect()
+                    .potionType(potionType)
+                    .duration(effect.containsKey(KEY_DURATION) ? NumberConversions.toInt(effect.get(KEY_DURATION)) : 20)
+                    .amplifier(NumberConversions.toInt(effect.get(KEY_AMPLIFIER)))
+                    .ambient(toBoolean(effect.get(KEY_AMBIENT)))
+                    .showParticles(toBoolean(effect.get(KEY_SHOW_PARTICLES)))
+                    .showIcon(toBoolean(effect.get(KEY_SHOW_ICON))));
+        }
+        return effects;
+    }
+    // endregion
+
+    // region bind recipe
+    /**
+     * Binds a recipe node and resolves its ingredient ids against the items already in the builder.
+     *
+     * @return the bound recipe, null if a required key is missing or incorrect
+     */
+    public @Nullable RecipeProperties bindRecipe(final File file, final String id, final Object node, final BrewingRegistry.Builder registry) {
+        Map<?, ?> map = asMap(node);
+        if (map == null) return null;
+
+        RecipeProperties.RecipePropertiesBuilder builder = RecipeProperties.builder().id(id);
+
+        boolean hasLevel = false, hasDisplay = false, hasSubstrate = false, hasContainer = false, hasOutput = false, hasMaxYield = false;
+        boolean failed = false;
+        int minYield = 0, maxYield = 0, cycle = 0;
+
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            switch (String.valueOf(entry.getKey())) {
+                case KEY_LEVEL -> {
+                    if (value == null || value instanceof Map || value instanceof ConfigurationSection) break;
+                    builder.level(String.valueOf(value));
+                    hasLevel = true;
+                }
+                case KEY_DISPLAY -> {
+                    int problemCount = problems.size();
+                    ItemProperties.Content display = bindDisplay(file, BrewingUtils.getPath(id, KEY_DISPLAY), value);
+                    if (display == null && problems.size() == problemCount) missing(file, BrewingUtils.getPath(id, KEY_DISPLAY));
+                    if (display == null) break;
+                    builder.display(display);
+                    hasDisplay = true;
+                }
+                case KEY_LORE -> builder.lore(bindLore(file, BrewingUtils.getPath(id, KEY_LORE), value));
+                case KEY_SUBSTRATE -> {
+                    int[] substrates = bindIngredients(file, id, KEY_SUBSTRATE, value, Type.SUBSTRATE, registry);
+                    if (substrates == null) break;
+                    builder.substrates(substrates);
+                    hasSubstrate = true;
+                }
+                case KEY_CONTAINER -> {
+                    int[] containers = bindIngredients(file, id, KEY_CONTAINER, value, Type.CONTAINER, registry);
+                    if (containers == null) break;
+                    builder.containers(containers);
+                    hasContainer = true;
+                }
+                case KEY_YEAST, KEY_EXTRA -> {
+                    // custom item binding only reports problems that reject the recipe
+                    int problemCount = problems.size();
+                    boolean yeast = KEY_YEAST.equals(entry.getKey());
+                    CustomItems customItems = bindCustomItems(file, id, yeast ? KEY_YEAST : KEY_EXTRA, value, !yeast, registry);
+                    if (customItems != null && yeast) builder.yeasts(customItems.ids(), customItems.amplify());
+                    else if (customItems != null) builder.extras(customItems.ids(), customItems.amplify());
+                    failed |= problems.size() != problemCount;
+                }
+                case KEY_OUTPUT -> {
+                    if (value == null) {
+                        missing(file, BrewingUtils.getPath(id, KEY_OUTPUT));
+                        break;
+                    }
+                    String outputId = String.valueOf(value);
+                    int output = registry.itemId(Type.OUTPUT, outputId);
+                    if (output < 0) {
+                        incorrect(file, BrewingUtils.getPath(id, KEY_OUTPUT), outputId);
+                        break;
+                    }
+                    builder.output(output);
+                    hasOutput = true;
+                }
+                case KEY_YIELD -> {
+                    Map<?, ?> yield = asMap(value);
+                    if (yield == null) break;
+                    minYield = NumberConversions.toInt(yield.get(KEY_MIN));
+                    hasMaxYield = yield.containsKey(KEY_MAX);
+                    maxYield = NumberConversions.toInt(yield.get(KEY_MAX));
+                }
+                case KEY_CYCLE -> cycle = NumberConversions.toInt(value);
+                default -> {
+                }
+            }
+        }
+
+        failed |= !hasLevel || !hasDisplay || !hasSubstrate || !hasContainer || !hasOutput;
+
+        if (!hasLevel) missing(file, BrewingUtils.getPath(id, KEY_LEVEL));
+        if (!hasDisplay && !map.containsKey(KEY_DISPLAY)) missing(file, BrewingUtils.getPath(id, KEY_DISPLAY));
+        if (!hasSubstrate && !map.containsKey(KEY_SUBSTRATE)) missing(file, BrewingUtils.getPath(id, KEY_SUBSTRATE));
+        if (!hasContainer && !map.containsKey(KEY_CONTAINER)) missing(file, BrewingUtils.getPath(id, KEY_CONTAINER));
+        if (!hasOutput && !map.containsKey(KEY_OUTPUT)) missing(file, BrewingUtils.getPath(id, KEY_OUTPUT));
+
+        String yieldPath = BrewingUtils.getPath(id, KEY_YIELD);
+        if (minYield < 0) {
+            problems.add(String.format("The value %s of key %s in %s is too small", minYield, BrewingUtils.getPath(yieldPath, KEY_MIN), file.getAbsolutePath()));
+            failed = true;
+        } else if (!hasMaxYield) {
+            missing(file, BrewingUtils.getPath(yieldPath, KEY_MAX));
+            failed = true;
+        } else if (maxYield < minYield) {
+            problems.add(String.format("The value %s of key %s in %s is too small", maxYield, BrewingUtils.getPath(yieldPath, KEY_MAX), file.getAbsolutePath()));
+            failed = true;
+        }
+
+        if (cycle < 1) {
+            problems.add(String.format("The value %s of key %s in %s is too small", cycle, BrewingUtils.getPath(id, KEY_CYCLE), file.getAbsolutePath()));
+            failed = true;
+        }
+
+        if (failed) return null;
+
+        return builder.minYield(minYield)
+                .maxYield(maxYield)
+                .cycle(cycle)
+                .build();
+    }
+
+    private @Nullable int[] bindIngredients(final File file, final String id, final String key, final Object value, final Type type, final BrewingRegistry.Builder registry) {
+        String path = BrewingUtils.getPath(id, key);
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            missing(file, path);
+            return null;
+        }
+
+        int[] ingredients = new int[list.size()];
+        Set<Integer> seen = new HashSet<>();
+        boolean failed = false;
+        for (int index = 0; index < list.size(); index++) {
+            Object element = list.get(index);
+            if (!(element instanceof String itemString)) {
+                problems.add(String.format("The object %s of key %s in %s is not a string", element, path + "[" + index + "]", file.getAbsolutePath()));
+                failed = true;
+                continue;
+            }
+
+            int itemId = registry.itemId(type, itemString);
+            if (itemId < 0) {
+                incorrect(file, path + "[" + index + "]", itemString);
+                failed = true;
+                continue;
+            }
+
+            ingredients[index] = itemId;
+            seen.add(itemId);
+        }
+
+        if (!failed && seen.size() != list.size()) {
+            problems.add(String.format("The key %s in %s contains duplicated items", path, file.getAbsolutePath()));
+            failed = true;
+        }
+        return failed ? null : ingredients;
+    }
+
+    private @Nullable CustomItems bindCustomItems(final File file, final String id, final String key, final Object value, final boolean hasType, final BrewingRegistry.Builder registry) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) return null;
+
+        String path = BrewingUtils.getPath(id, key);
+        // keyed by item id, a repeated item keeps its first position and takes the last amplify
+        Map<Integer, Double> customItems = new LinkedHashMap<>();
+        for (int index = 0; index < list.size(); index++) {
+            String elementPath = path + "[" + index + "]";
+            Map<?, ?> element = asMap(list.get(index));
+            if (element == null) {
+                incorrect(file, elementPath, list.get(index));
+                continue;
+            }
+
+            Object itemValue = element.get(KEY_ITEM);
+            if (itemValue == null) {
+                missing(file, BrewingUtils.getPath(elementPath, KEY_ITEM));
+                continue;
+            }
+            String itemString = String.valueOf(itemValue);
+
+            Type type = Type.YEAST;
+            if (hasType) {
+                Object typeValue = element.get(KEY_TYPE);
+                if (typeValue == null) {
+                    missing(file, BrewingUtils.getPath(elementPath, KEY_TYPE));
+                    continue;
+                }
+                type = lookup(file, elementPath, KEY_TYPE, typeValue, TYPES);
+                if (type == null) continue;
+                if (type != Type.SUBSTRATE && type != Type.YEAST && type != Type.OUTPUT) {
+                    incorrect(file, BrewingUtils.getPath(elementPath, KEY_TYPE), typeValue);
+                    continue;
+                }
+            }
+
+            int itemId = registry.itemId(type, itemString);
+            if (itemId < 0) {
+                problems.add(String.format("The item %s of type %s of key %s in %s not exist", itemString, type, elementPath, file.getAbsolutePath()));
+                continue;
+            }
+
+            customItems.put(itemId, NumberConversions.toDouble(element.get(KEY_AMPLIFY)));
+        }
+
+        if (customItems.isEmpty()) return null;
+
+        int[] ids = new int[customItems.size()];
+        double[] amplify = new double[customItems.size()];
+        int index = 0;
+        for (Map.Entry<Integer, Double> entry : customItems.entrySet()) {
+            ids[index] = entry.getKey();
+            amplify[index++] = entry.getValue();
+        }
+        return new CustomItems(ids, amplify);
+    }
+
+    private record CustomItems(int[] ids, double[] amplify) {
+    }
+    // endregion
+
+    // region bind content
+    public @Nullable ItemProperties.Content bindDisplay(final File file, final String path, final Object value) {
+        Map<?, ?> map = asMap(value);
+        if (map != null) return bindContent(file, path, map);
+        if (value == null) return null;
+
+        String display = String.valueOf(value);
+        return display.isBlank() ? null : ItemProperties.getContent().text(display);
+    }
+
+    public @Nullable ItemProperties.Content bindContent(final File file, final String path, final Map<?, ?> map) {
+        Object text = map.get(KEY_TEXT);
+        if (text == null) {
+            missing(file, BrewingUtils.getPath(path, KEY_TEXT));
+            return null;
+        }
+
+        ItemProperties.Content content = ItemProperties.getContent().text(String.valueOf(text));
+        if (map.get(KEY_COLOR) instanceof List<?> color && color.size() == 3) {
+            content.color(new ArrayList<>(Arrays.asList(NumberConversions.toInt(color.get(0)), NumberConversions.toInt(color.get(1)), NumberConversions.toInt(color.get(2)))));
+        }
+        return content;
+    }
+
+    private @Nullable ArrayList<ItemProperties.Content> bindLore(final File file, final String path, final Object value) {
+        if (!(value instanceof List<?> list)) return null;
+
+        ArrayList<ItemProperties.Content> lore = new ArrayList<>(list.size());
+        for (int index = 0; index < list.size(); index++) {
+            Object element = list.get(index);
+            Map<?, ?> map = asMap(element);
+            if (map != null) {
+                ItemProperties.Content content = bindContent(file, path + "[" + index + "]", map);
+                if (content != null) lore.add(content);
+            } else if (element instanceof String loreString) {
+                lore.add(ItemProperties.getContent().text(loreString));
+            } else {
+                incorrect(file, path + "[" + index + "]", element);
+            }
+        }
+        return lore.isEmpty() ? null : lore;
+    }
+    // endregion
+
+    // region helpers
+    private @Nullable ArrayList<String> bindStrings(final Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) return null;
+        ArrayList<String> strings = new ArrayList<>(list.size());
+        list.forEach(element -> strings.add(String.valueOf(element)));
+        return strings;
+    }
+
+    private <E> @Nullable E lookup(final File file, final String path, final String key, final Object value, final Map<String, E> table) {
+        if (value == null) return null;
+        E result = table.get(String.valueOf(value).toLowerCase(Locale.ROOT));
+        if (result == null) incorrect(file, BrewingUtils.getPath(path, key), value);
+        return result;
+    }
+
+    private static boolean toBoolean(final Object value) {
+        return value instanceof Boolean bool ? bool : value != null && Boolean.parseBoolean(value.toString());
+    }
+
+    static @Nullable Map<?, ?> asMap(final Object node) {
+        if (node instanceof ConfigurationSection section) return section.getValues(false);
+        if (node instanceof Map<?, ?> map) return map;
+        return null;
+    }
+
+    private void missing(final File file, final String path) {
+        problems.add(String.format("The key %s in %s does not exist or incorrect", path, file.getAbsolutePath()));
+    }
+
+    private void incorrect(final File file, final String path, final Object value) {
+        problems.add(String.format("The value %s of key %s in %s is incorrect", value, path, file.getAbsolutePath()));
+    }
+
+    public void problem(String message) {
+        problems.add(message);
+    }
+    // endregion
+
+    // region report
+    public void reset() {
+        problems.clear();
+    }
+
+    /**
+     * @return true if a problem was found since the last {@link #reset()}
+     */
+    public boolean hasProblems() {
+        return !problems.isEmpty();
+    }
+
+    /**
+     * Logs every problem found since the last {@link #reset()} as one message.
+     */
+    public void report() {
+        if (problems.isEmpty()) return;
+        StringBuilder message = new StringBuilder(String.format("Found %d problem(s) in the config files:", problems.size()));
+        problems.forEach(problem -> message.append(System.lineSeparator()).append(" - ").append(problem));
+        logger.warning(message.toString());
+        problems.clear();
+    }
+    // endregion
+
+    // region keys
+    private static final String KEY_PROVIDER = "provider";
+    private static final String KEY_MATERIAL = "material";
+    private static final String KEY_DISPLAY = "display";
+    private static final String KEY_LORE = "lore";
+    private static final String KEY_ITEM_TIER = "item-tier";
+    private static final String KEY_CUSTOM_MODEL_DATA = "custom-model-data";
+    private static final String KEY_RESTORE = "restore";
+    private static final String KEY_FOOD = "food";
+    private static final String KEY_HEALTH = "health";
+    private static final String KEY_SATURATION = "saturation";
+    private static final String KEY_EFFECT = "effect";
+    private static final String KEY_POTION_TYPE = "potion-type";
+    private static final String KEY_DURATION = "duration";
+    private static final String KEY_AMPLIFIER = "amplifier";
+    private static final String KEY_AMBIENT = "ambient";
+    private static final String KEY_SHOW_PARTICLES = "show-particles";
+    private static final String KEY_SHOW_ICON = "show-icon";
+    private static final String KEY_COMMAND = "reload";
+    private static final String KEY_REQUIRED_LEVEL = "required-level";
+    private static final String KEY_TEXT = "text";
+    private static final String KEY_COLOR = "color";
+    private static final String KEY_LEVEL = "level";
+    private static final String KEY_SUBSTRATE = "substrate";
+    private static final String KEY_YEAST = "yeast";
+    private static final String KEY_EXTRA = "extra";
+    private static final String KEY_CONTAINER = "container";
+    private static final String KEY_OUTPUT = "output";
+    private static final String KEY_YIELD = "yield";
+    private static final String KEY_MIN = "min";
+    private static final String KEY_MAX = "max";
+    private static final String KEY_CYCLE = "cycle";
+    private static final String KEY_ITEM = "item";
+    private static final String KEY_TYPE = "type";
+    private static final String KEY_AMPLIFY = "amplify";
+    // endregion
+
+    // region get instance
+    private static class BinderInstance {
+        static final ConfigBinder instance = new ConfigBinder();
+    }
+
+    public static ConfigBinder getInstance() {
+        return BinderInstance.instance;
+    }
+    // endregion
+}
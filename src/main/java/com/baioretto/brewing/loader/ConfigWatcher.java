@@ -0,0 +1,145 @@
+package com.baioretto.brewing.loader;
+
+import com.baioretto.brewing.Brewing;
+import com.baioretto.brewing.util.BrewingUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches {@code config.yml}, {@code items/} and {@code recipes/} and reloads the files that changed.
+ *
+ * <p>Events are collected until the folders stay quiet for {@code auto-reload-debounce}
+ * milliseconds, so an editor saving several files or writing one file in chunks triggers a
+ * single {@link ConfigurationLoader#reload(Collection)}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ConfigWatcher {
+    private final Logger logger = Brewing.instance().getLogger();
+
+    private WatchService watchService;
+    private Thread thread;
+
+    // region start and stop
+    /**
+     * Starts watching when {@code auto-reload} is enabled and stops when it was turned off, safe to call after every load.
+     */
+    public synchronized void start() {
+        ConfigurationLoader loader = ConfigurationLoader.getInstance();
+        if (!loader.defaultConfig().getBoolean("auto-reload", false)) {
+            this.stop();
+            return;
+        }
+        if (thread != null) return;
+
+        long debounce = Math.max(50L, loader.defaultConfig().getLong("auto-reload-debounce", DEFAULT_DEBOUNCE));
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (File folder : new File[]{loader.dataFolder(), loader.itemFolder(), loader.recipeFolder()}) {
+                folder.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to watch the config files, auto-reload is disabled: " + e);
+            this.closeWatchService();
+            return;
+        }
+
+        thread = new Thread(() -> this.watch(debounce), "Brewing-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null) return;
+        thread.interrupt();
+        thread = null;
+        this.closeWatchService();
+    }
+
+    private void closeWatchService() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        watchService = null;
+    }
+    // endregion
+
+    // region watch loop
+    private void watch(long debounce) {
+        WatchService service = watchService;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<File> changed = new LinkedHashSet<>();
+                this.drain(service.take(), changed);
+
+                // keep collecting until nothing happened for a whole debounce window
+                WatchKey key;
+                while ((key = service.poll(debounce, TimeUnit.MILLISECONDS)) != null) {
+                    this.drain(key, changed);
+                }
+
+                if (!changed.isEmpty()) this.reload(changed);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // stopped
+        }
+    }
+
+    private void drain(WatchKey key, Set<File> changed) {
+        ConfigurationLoader loader = ConfigurationLoader.getInstance();
+        Path folder = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events were lost, let the digests decide what changed
+                changed.add(loader.defaultConfigFile());
+                changed.addAll(listFiles(loader.itemFolder()));
+                changed.addAll(listFiles(loader.recipeFolder()));
+                continue;
+            }
+
+            File file = folder.resolve((Path) event.context()).toFile();
+            if (folder.equals(loader.dataFolder().toPath()) && !file.equals(loader.defaultConfigFile())) continue;
+            changed.add(file);
+        }
+        key.reset();
+    }
+
+    private void reload(Set<File> changed) {
+        try {
+            List<File> reloaded = ConfigurationLoader.getInstance().reload(changed);
+            if (reloaded.isEmpty()) return;
+            // guis and completions built from the previous snapshot are redone once the new one is published
+            Bukkit.getScheduler().runTask(Brewing.instance(), BrewingUtils::onRegistryPublished);
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to reload the changed config files", e);
+        }
+    }
+
+    private static List<File> listFiles(File folder) {
+        File[] files = folder.listFiles();
+        return files == null ? Collections.emptyList() : Arrays.asList(files);
+    }
+    // endregion
+
+    private static final long DEFAULT_DEBOUNCE = 500L;
+
+    // region get instance
+    private static class WatcherInstance {
+        static final ConfigWatcher instance = new ConfigWatcher();
+    }
+
+    public static ConfigWatcher getInstance() {
+        return WatcherInstance.instance;
+    }
+    // endregion
+}
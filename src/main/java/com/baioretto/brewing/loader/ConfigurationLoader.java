@@ -4,19 +4,39 @@ package com.baioretto.brewing.loader;
 import com.baioretto.baiolib.api.extension.sender.command.ConsoleCommandSenderImpl;
 import com.google.common.collect.Maps;
 import com.baioretto.brewing.Brewing;
+import com.baioretto.brewing.Container;
+import com.baioretto.brewing.bean.ItemProperties;
+import com.baioretto.brewing.bean.RecipeProperties;
 import com.baioretto.brewing.enumerate.EnumBase;
+import com.baioretto.brewing.enumerate.Type;
+import com.baioretto.brewing.exception.BrewingInternalException;
+import com.baioretto.brewing.registry.BrewingRegistry;
+import com.baioretto.brewing.registry.ItemKey;
+import com.baioretto.brewing.util.ComponentCache;
 import lombok.experimental.ExtensionMethod;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
 
 // loading all file from plugin data folder
 @ExtensionMethod(ConsoleCommandSenderImpl.class)
 public class ConfigurationLoader {
+    private final Logger logger = Brewing.instance().getLogger();
+
     private final File dataFolder = Brewing.instance().getDataFolder();
 
     private final File defaultConfigFile = new File(dataFolder, "config.yml");
@@ -25,30 +45,374 @@ public class ConfigurationLoader {
     private final File recipeFolder = new File(dataFolder, "recipes");
 
     /**
-     * map(configType, map(fileObject, configurationObject))
+     * map(configType, map(fileObject, configurationObject)), configurationObject is null
+     * for files over {@code streaming-load-threshold}, loaders stream those with {@link StreamingYamlLoader}
      */
     public static final Map<ConfigEnum, LinkedHashMap<File, YamlConfiguration>> CONFIGURATION_LIST = Maps.newHashMap();
 
+    /**
+     * content digest of every config file as of the last load, only kept while auto-reload is enabled
+     */
+    private final Map<File, byte[]> fileDigests = Maps.newHashMap();
+
+    /**
+     * options read on the main thread, taken from config.yml with every publish so reading them
+     * never waits for the lock a load holds
+     */
+    private volatile boolean sharedGui;
+    private volatile int guiCacheSize = 256;
+    private volatile int guiCacheIdle = 600;
+
+    /**
+     * milliseconds of the last full yaml load, carried into the catalog cache, -1 if unknown
+     */
+    private long yamlMillis = -1L;
+
     // load
-    public void load() {
+    public synchronized void load() {
         long start = System.currentTimeMillis();
         TextComponent prefix = Component.text("[Brewing] ", NamedTextColor.AQUA);
         TextComponent startMessage = Component.text("loading plugin, please wait...", NamedTextColor.YELLOW);
         Brewing.instance().getServer().getConsoleSender().sendMessage(Component.text().append(prefix, startMessage));
 
-        loadFiles();
+        // digests are taken before anything is parsed, an edit saved during the load reloads again later
+        byte[] configDigest = digest(defaultConfigFile);
+        loadDefaultFiles();
+        Map<File, byte[]> digests = this.readFileDigests(configDigest);
+
+        CatalogCache cache = CatalogCache.getInstance();
+        byte[] hash = getDefaultConfig().getBoolean("catalog-cache", true) ? cache.hash(getCatalogFiles()) : null;
+
+        BrewingRegistry.Builder builder = hash == null ? null : cache.read(hash);
+        boolean fromCache = builder != null;
+
+        ConfigBinder binder = ConfigBinder.getInstance();
+        binder.reset();
+        ComponentCache.getInstance().clear();
+
+        if (!fromCache) {
+            loadFiles();
+
+            builder = BrewingRegistry.builder();
+
+            loadItems(builder);
+
+            loadRecipes(builder);
 
-        loadItems();
+            // a hit skips parsing and with it the problems, so files with problems are never cached
+            yamlMillis = System.currentTimeMillis() - start;
+            if (hash != null && !binder.hasProblems()) cache.write(hash, builder, yamlMillis);
+        } else {
+            yamlMillis = cache.yamlMillis();
+        }
+
+        binder.report();
+
+        this.readOptions();
+        Container.publish(builder.build());
 
-        loadRecipes();
+        fileDigests.clear();
+        fileDigests.putAll(digests);
 
         long end = System.currentTimeMillis();
-        TextComponent endMessage = Component.text("Loaded all config files in ", NamedTextColor.GREEN).append(Component.text(end - start + " ms", NamedTextColor.AQUA));
+        // a hit shows the time of the yaml load that built the cache next to its own
+        String source = !fromCache ? " from yaml" : yamlMillis < 0 ? " from catalog cache" : String.format(" from catalog cache, %d ms from yaml", yamlMillis);
+        TextComponent endMessage = Component.text("Loaded all config files in ", NamedTextColor.GREEN).append(Component.text(end - start + " ms", NamedTextColor.AQUA)).append(Component.text(source, NamedTextColor.GRAY));
         Brewing.instance().getServer().getConsoleSender().sendMessage(Component.text().append(prefix, endMessage));
     }
 
-    // load file
-    private void loadFiles() {
+    // region incremental reload
+    /**
+     * Patches the published registry with the files whose content changed since the last load.
+     *
+     * <p>Only the changed item and recipe files are parsed again. Items they declared are rebuilt,
+     * and so are the recipes and display items that depend on them according to the registry's
+     * {@link com.baioretto.brewing.registry.DependencyGraph}. A change to {@code config.yml} that
+     * only touches {@code item-tier} contents rebuilds the items showing those tiers, any other
+     * change to it rebuilds everything through {@link #load()}.
+     *
+     * @param candidates files reported by the watcher, files with an unchanged digest are skipped
+     * @return the files that actually changed, empty if nothing was reloaded
+     */
+    public synchronized List<File> reload(Collection<File> candidates) {
+        // the digests of the files as they are parsed below, recorded only once the patch is published
+        List<File> changed = new ArrayList<>();
+        Map<File, byte[]> digests = Maps.newHashMap();
+        for (File file : candidates) {
+            byte[] digest = digest(file);
+            if (Arrays.equals(fileDigests.get(file), digest)) continue;
+            changed.add(file);
+            digests.put(file, digest);
+        }
+        if (changed.isEmpty()) return changed;
+
+        if (CONFIGURATION_LIST.get(ConfigEnum.DEFAULT_CONFIG) == null) {
+            this.load();
+            return changed;
+        }
+
+        long start = System.currentTimeMillis();
+
+        ConfigBinder binder = ConfigBinder.getInstance();
+        binder.reset();
+
+        BrewingRegistry previous = Container.registry();
+        BrewingRegistry.Builder builder = previous.toBuilder();
+
+        Set<ItemKey> affectedItems = new LinkedHashSet<>();
+        if (changed.contains(defaultConfigFile)) {
+            Set<ItemKey> tierItems = this.patchItemTier(previous, builder);
+            if (tierItems == null) {
+                this.load();
+                return changed;
+            }
+            affectedItems.addAll(tierItems);
+        }
+
+        long threshold = this.getDefaultConfig().getLong("streaming-load-threshold", DEFAULT_STREAMING_THRESHOLD);
+        affectedItems.addAll(this.patchItems(changed, builder, threshold, affectedItems));
+        Set<String> affectedRecipes = this.patchRecipes(changed, affectedItems, previous, builder, threshold);
+
+        boolean problems = binder.hasProblems();
+        binder.report();
+
+        this.readOptions();
+        Container.publish(builder.build());
+
+        digests.forEach((file, digest) -> {
+            if (digest == null) fileDigests.remove(file);
+            else fileDigests.put(file, digest);
+        });
+        if (!problems && this.getDefaultConfig().getBoolean("catalog-cache", true)) {
+            byte[] hash = CatalogCache.getInstance().hash(getCatalogFiles());
+            if (hash != null) CatalogCache.getInstance().write(hash, builder, yamlMillis);
+        }
+
+        logger.info(String.format("Reloaded %d changed file(s) in %d ms, %d item(s) and %d recipe(s) rebuilt", changed.size(), System.currentTimeMillis() - start, affectedItems.size(), affectedRecipes.size()));
+        return changed;
+    }
+
+    /**
+     * Applies a config.yml change that only touched item-tier contents.
+     *
+     * @return items showing a changed item-tier, null if anything else in config.yml changed and a full load is needed
+     */
+    private @Nullable Set<ItemKey> patchItemTier(BrewingRegistry previous, BrewingRegistry.Builder builder) {
+        YamlConfiguration before = this.getDefaultConfig();
+        YamlConfiguration after = YamlConfiguration.loadConfiguration(defaultConfigFile);
+        if (!withoutItemTier(before).equals(withoutItemTier(after))) return null;
+
+        this.updateConfigurationList(ConfigEnum.DEFAULT_CONFIG, defaultConfigFile, after);
+        Map<String, ItemProperties.Content> itemTier = new HashMap<>(builder.itemTier());
+        builder.itemTier().clear();
+        TierLoader.getInstance().loadItemTierContents(builder);
+
+        // a removed tier rejects the items using it, which only a full bind reports
+        if (!builder.itemTier().keySet().containsAll(itemTier.keySet())) return null;
+
+        Set<ItemKey> affected = new LinkedHashSet<>();
+        builder.itemTier().forEach((tier, content) -> {
+            ItemProperties.Content old = itemTier.get(tier);
+            if (old == null || !old.toString().equals(content.toString())) affected.addAll(previous.dependencies().itemsWithTier(tier));
+        });
+        return affected;
+    }
+
+    private static String withoutItemTier(YamlConfiguration configuration) {
+        YamlConfiguration copy = new YamlConfiguration();
+        configuration.getValues(false).forEach(copy::set);
+        copy.set("item-tier", null);
+        return copy.saveToString();
+    }
+
+    // rebind the changed item files and rebuild the item stacks they declare or declared, plus the already affected ones
+    private Set<ItemKey> patchItems(List<File> changed, BrewingRegistry.Builder builder, long threshold, Set<ItemKey> rebuild) {
+        ItemPropertiesLoader loader = ItemPropertiesLoader.instance();
+        Map<File, List<ItemProperties>> itemPropertiesByFile = loader.itemPropertiesByFile();
+
+        Set<ItemKey> affected = new LinkedHashSet<>(rebuild);
+        boolean filesChanged = false;
+        for (File file : changed) {
+            if (!isInFolder(file, itemFolder)) continue;
+            filesChanged = true;
+
+            List<ItemProperties> previous = itemPropertiesByFile.remove(file);
+            if (previous != null) previous.forEach(item -> affected.add(ItemKey.of(item.type(), item.id())));
+            if (!file.isFile()) continue;
+
+            YamlConfiguration configuration = isStreamed(file, threshold) ? null : parseFile(file).configuration();
+            List<ItemProperties> items = loader.loadFile(file, configuration, builder.itemTier());
+            items.forEach(item -> affected.add(ItemKey.of(item.type(), item.id())));
+            itemPropertiesByFile.put(file, items);
+        }
+        if (affected.isEmpty()) return affected;
+
+        if (filesChanged) loader.rebuildItemPropertiesSet(listFiles(itemFolder));
+
+        // the last declaration in load order wins, same as a full load
+        Map<ItemKey, ItemProperties> winners = new HashMap<>();
+        loader.itemPropertiesSet().forEach(item -> {
+            ItemKey key = ItemKey.of(item.type(), item.id());
+            if (affected.contains(key)) winners.put(key, item);
+        });
+
+        ItemStackLoader itemStackLoader = ItemStackLoader.getInstance();
+        for (ItemKey key : affected) {
+            builder.itemStacks(key.type()).remove(key.id());
+            builder.tierByItem().remove(key);
+            ItemProperties winner = winners.get(key);
+            if (winner != null) itemStackLoader.categorizeItem(winner, builder);
+        }
+
+        if (affected.stream().anyMatch(key -> key.type() == Type.TIER)) {
+            TierLoader.getInstance().relinkRecipeTier(builder);
+        }
+        return affected;
+    }
+
+    // rebind the changed recipe files and relink the recipes that use an affected item
+    private Set<String> patchRecipes(List<File> changed, Set<ItemKey> affectedItems, BrewingRegistry previous, BrewingRegistry.Builder builder, long threshold) {
+        RecipePropertiesLoader loader = RecipePropertiesLoader.getInstance();
+        Map<File, List<String>> recipeIdsByFile = loader.recipeIdsByFile();
+
+        Set<File> changedRecipeFiles = new HashSet<>();
+        Set<String> affected = new LinkedHashSet<>();
+        for (File file : changed) {
+            if (!isInFolder(file, recipeFolder)) continue;
+            changedRecipeFiles.add(file);
+            List<String> ids = recipeIdsByFile.get(file);
+            if (ids != null) affected.addAll(ids);
+        }
+
+        affectedItems.forEach(item -> affected.addAll(previous.dependencies().recipesUsing(item)));
+
+        for (String id : affected) {
+            RecipeProperties recipe = builder.recipeProperties().remove(id);
+            if (recipe != null) builder.removeRecipeDisplayItem(recipe.level(), id);
+        }
+
+        // walk the recipe files in load order so the last declaration still wins
+        Map<File, List<String>> ordered = Maps.newLinkedHashMap();
+        for (File file : listFiles(recipeFolder)) {
+            if (changedRecipeFiles.contains(file)) {
+                YamlConfiguration configuration = isStreamed(file, threshold) ? null : parseFile(file).configuration();
+                List<String> ids = loader.loadFile(file, configuration, builder);
+                affected.addAll(ids);
+                ordered.put(file, ids);
+                continue;
+            }
+
+            List<String> ids = recipeIdsByFile.get(file);
+            if (ids == null) continue;
+            ordered.put(file, ids);
+            for (String id : ids) {
+                RecipeProperties recipe = previous.recipe(id);
+                if (recipe == null || !affected.contains(id)) continue;
+                RecipeProperties relinked = loader.relink(recipe, builder);
+                if (relinked != null) builder.recipeProperties().put(id, relinked);
+            }
+        }
+        recipeIdsByFile.clear();
+        recipeIdsByFile.putAll(ordered);
+
+        ItemStackLoader itemStackLoader = ItemStackLoader.getInstance();
+        for (String id : affected) {
+            RecipeProperties recipe = builder.recipeProperties().get(id);
+            if (recipe != null) itemStackLoader.convertRecipeToItemStack(recipe, builder);
+        }
+        return affected;
+    }
+
+    private static boolean isInFolder(File file, File folder) {
+        return folder.equals(file.getParentFile());
+    }
+
+    /**
+     * @return the regular files of the folder sorted by name, the order they are loaded, merged and hashed in
+     */
+    private static List<File> listFiles(File folder) {
+        File[] files = folder.listFiles(File::isFile);
+        if (files == null) return Collections.emptyList();
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return Arrays.asList(files);
+    }
+    // endregion
+
+    // region file digests
+    // digests are only needed by the watcher, a plain load skips reading every file twice
+    private Map<File, byte[]> readFileDigests(@Nullable byte[] configDigest) {
+        Map<File, byte[]> digests = Maps.newHashMap();
+        if (!this.getDefaultConfig().getBoolean("auto-reload", false)) return digests;
+        for (File file : getCatalogFiles()) {
+            byte[] digest = file.equals(defaultConfigFile) ? configDigest : digest(file);
+            if (digest != null) digests.put(file, digest);
+        }
+        return digests;
+    }
+
+    // sha-256 of the file content, null if the file is missing or unreadable
+    private @Nullable byte[] digest(File file) {
+        if (!file.isFile()) return null;
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file.toPath()));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    File dataFolder() {
+        return dataFolder;
+    }
+
+    File itemFolder() {
+        return itemFolder;
+    }
+
+    File recipeFolder() {
+        return recipeFolder;
+    }
+
+    File defaultConfigFile() {
+        return defaultConfigFile;
+    }
+
+    // read a default config value outside of a load
+    synchronized YamlConfiguration defaultConfig() {
+        return this.getDefaultConfig();
+    }
+
+    /**
+     * @return true if the viewers of one barrel share its guis instead of getting one each
+     */
+    public boolean sharedGui() {
+        return sharedGui;
+    }
+
+    /**
+     * @return count of players whose guis are kept for the next open
+     */
+    public int guiCacheSize() {
+        return guiCacheSize;
+    }
+
+    /**
+     * @return seconds a kept gui may go unused, 0 keeps it until it is pushed out by size
+     */
+    public int guiCacheIdle() {
+        return guiCacheIdle;
+    }
+
+    // called under the load lock right before a registry is published
+    private void readOptions() {
+        YamlConfiguration config = this.getDefaultConfig();
+        sharedGui = config.getBoolean("shared-gui", false);
+        guiCacheSize = config.getInt("gui-cache-size", 256);
+        guiCacheIdle = config.getInt("gui-cache-idle", 600);
+    }
+    // endregion
+
+    // load default config and create missing files
+    private void loadDefaultFiles() {
         this.createDefaultConfigDirectory();
         this.createItemConfigDirectory();
         this.createRecipeConfigDirectory();
@@ -56,22 +420,31 @@ public class ConfigurationLoader {
         CONFIGURATION_LIST.clear();
 
         this.loadDefaultConfig();
-        this.loadItemConfig();
-        this.loadRecipeConfig();
+    }
+
+    // load item and recipe files
+    private void loadFiles() {
+        ForkJoinPool pool = this.createParsePool();
+        try {
+            this.loadItemConfig(pool);
+            this.loadRecipeConfig(pool);
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
     }
 
     // load item
-    private void loadItems() {
-        TierLoader.getInstance().loadItemTierContents();
-        ItemPropertiesLoader.instance().loadItemsProperties();
-        ItemStackLoader.getInstance().convertPropertiesToItemStack();
+    private void loadItems(BrewingRegistry.Builder builder) {
+        TierLoader.getInstance().loadItemTierContents(builder);
+        ItemPropertiesLoader.instance().loadItemsProperties(builder);
+        ItemStackLoader.getInstance().convertPropertiesToItemStack(builder);
     }
 
     // load recipe
-    private void loadRecipes() {
-        TierLoader.getInstance().loadRecipeTier();
-        RecipePropertiesLoader.getInstance().loadRecipeProperties();
-        ItemStackLoader.getInstance().convertRecipeToItemStack();
+    private void loadRecipes(BrewingRegistry.Builder builder) {
+        TierLoader.getInstance().loadRecipeTier(builder);
+        RecipePropertiesLoader.getInstance().loadRecipeProperties(builder);
+        ItemStackLoader.getInstance().convertRecipeToItemStack(builder);
     }
 
     // load default config files
@@ -80,25 +453,113 @@ public class ConfigurationLoader {
     }
 
     // load item config
-    private void loadItemConfig() {
-        this.loadCustomConfig(itemFolder, ConfigEnum.ITEM_CONFIG);
+    private void loadItemConfig(ForkJoinPool pool) {
+        this.loadCustomConfig(itemFolder, ConfigEnum.ITEM_CONFIG, pool);
     }
 
     // load recipe config
-    private void loadRecipeConfig() {
-        this.loadCustomConfig(recipeFolder, ConfigEnum.RECIPE_CONFIG);
+    private void loadRecipeConfig(ForkJoinPool pool) {
+        this.loadCustomConfig(recipeFolder, ConfigEnum.RECIPE_CONFIG, pool);
     }
 
     // load custom config
-    private void loadCustomConfig(File folder, ConfigEnum type) {
-        File[] files = folder.listFiles();
+    private void loadCustomConfig(File folder, ConfigEnum type, ForkJoinPool pool) {
+        List<File> files = listFiles(folder);
+
+        if (files.isEmpty()) return;
+
+        long threshold = this.getDefaultConfig().getLong("streaming-load-threshold", DEFAULT_STREAMING_THRESHOLD);
 
-        if (files != null && files.length != 0) {
+        long start = System.nanoTime();
+        if (pool == null || files.size() == 1) {
             for (File file : files) {
-                YamlConfiguration configuration = YamlConfiguration.loadConfiguration(file);
-                this.updateConfigurationList(type, file, configuration);
+                ParsedFile parsed = isStreamed(file, threshold) ? streamedFile(file) : parseFile(file);
+                this.logParseTime(parsed);
+                this.updateConfigurationList(type, file, parsed.configuration());
             }
+            this.logTotalParseTime(type, files.size(), System.nanoTime() - start, 1);
+            return;
+        }
+
+        List<Callable<ParsedFile>> tasks = new ArrayList<>(files.size());
+        for (File file : files) {
+            tasks.add(isStreamed(file, threshold) ? () -> streamedFile(file) : () -> parseFile(file));
+        }
+
+        // futures come back in submission order, so the merge order is the same as the sequential path
+        try {
+            for (Future<ParsedFile> future : pool.invokeAll(tasks)) {
+                ParsedFile parsed = future.get();
+                this.logParseTime(parsed);
+                this.updateConfigurationList(type, parsed.file(), parsed.configuration());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BrewingInternalException(e);
+        } catch (ExecutionException e) {
+            throw new BrewingInternalException(e.getCause());
+        }
+        this.logTotalParseTime(type, files.size(), System.nanoTime() - start, pool.getParallelism());
+    }
+
+    // parse single file
+    private static ParsedFile parseFile(File file) {
+        long start = System.nanoTime();
+        YamlConfiguration configuration = YamlConfiguration.loadConfiguration(file);
+        return new ParsedFile(file, configuration, System.nanoTime() - start);
+    }
+
+    // files over the threshold are left for the loaders to stream, a negative threshold disables streaming
+    private static boolean isStreamed(File file, long threshold) {
+        return threshold >= 0 && file.length() > threshold;
+    }
+
+    // placeholder for a streamed file, nothing is parsed up front
+    private static ParsedFile streamedFile(File file) {
+        return new ParsedFile(file, null, 0L);
+    }
+
+    // log parse time
+    private void logParseTime(ParsedFile parsed) {
+        if (!this.getDefaultConfig().getBoolean("log-parse-time", false)) return;
+        if (parsed.configuration() == null) {
+            logger.info(String.format("Streaming %s (%d KB)", dataFolder.toPath().relativize(parsed.file().toPath()), parsed.file().length() / 1024));
+            return;
         }
+        logger.info(String.format("Parsed %s in %.2f ms on %s", dataFolder.toPath().relativize(parsed.file().toPath()), parsed.nanos() / 1_000_000D, parsed.thread()));
+    }
+
+    // log parse time of a whole folder
+    private void logTotalParseTime(ConfigEnum type, int count, long nanos, int threads) {
+        if (!this.getDefaultConfig().getBoolean("log-parse-time", false)) return;
+        logger.info(String.format("Parsed %d %s files in %.2f ms with %d thread(s)", count, type.getString(), nanos / 1_000_000D, threads));
+    }
+
+    // create parse pool, null when parallel load is disabled
+    private ForkJoinPool createParsePool() {
+        YamlConfiguration config = this.getDefaultConfig();
+        if (!config.getBoolean("parallel-load", true)) return null;
+
+        int threads = config.getInt("parallel-load-threads", 0);
+        if (threads < 1) threads = Runtime.getRuntime().availableProcessors();
+        threads = Math.min(threads, MAX_PARSE_THREADS);
+        if (threads < 2) return null;
+
+        return new ForkJoinPool(threads);
+    }
+
+    // every file the catalog is built from, in load order
+    private List<File> getCatalogFiles() {
+        List<File> files = new ArrayList<>();
+        files.add(defaultConfigFile);
+        files.addAll(listFiles(itemFolder));
+        files.addAll(listFiles(recipeFolder));
+        return files;
+    }
+
+    // get default config
+    private YamlConfiguration getDefaultConfig() {
+        return CONFIGURATION_LIST.get(ConfigEnum.DEFAULT_CONFIG).get(defaultConfigFile);
     }
 
     // update configuration list
@@ -140,6 +601,16 @@ public class ConfigurationLoader {
     private ConfigurationLoader() {
     }
 
+    private static final int MAX_PARSE_THREADS = 8;
+
+    private static final long DEFAULT_STREAMING_THRESHOLD = 1024 * 1024;
+
+    private record ParsedFile(File file, YamlConfiguration configuration, long nanos, String thread) {
+        ParsedFile(File file, YamlConfiguration configuration, long nanos) {
+            this(file, configuration, nanos, Thread.currentThread().getName());
+        }
+    }
+
     private static volatile ConfigurationLoader instance;
 
     /**
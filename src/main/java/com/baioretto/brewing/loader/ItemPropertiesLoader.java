@@ -1,156 +1,134 @@
 package com.baioretto.brewing.loader;
 
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import com.baioretto.brewing.Brewing;
 import com.baioretto.brewing.bean.ItemProperties;
 import com.baioretto.brewing.enumerate.Type;
-import com.baioretto.brewing.enumerate.Provider;
+import com.baioretto.brewing.registry.BrewingRegistry;
 import com.baioretto.brewing.util.BrewingUtils;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
-import java.util.logging.Logger;
-
-import static com.baioretto.brewing.util.ConfigurationUtils.*;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 // loading item properties from items folder
 class ItemPropertiesLoader {
-    private final Logger logger = Brewing.instance().getLogger();
+    private final ConfigBinder binder = ConfigBinder.getInstance();
 
     @Getter private final Set<ItemProperties> itemPropertiesSet = Sets.newLinkedHashSet();
 
+    /**
+     * items bound from each file in load order, used to patch the items of a single changed file
+     */
+    @Getter private final Map<File, List<ItemProperties>> itemPropertiesByFile = Maps.newLinkedHashMap();
+
     // load items properties
-    public void loadItemsProperties() {
+    public void loadItemsProperties(BrewingRegistry.Builder builder) {
         LinkedHashMap<File, YamlConfiguration> configurationFileList = ConfigurationLoader.CONFIGURATION_LIST.get(ConfigurationLoader.ConfigEnum.ITEM_CONFIG);
 
         if (configurationFileList == null || configurationFileList.isEmpty()) return;
 
         itemPropertiesSet.clear();
+        itemPropertiesByFile.clear();
 
-        configurationFileList.forEach(this::configurationFileAction);
+        configurationFileList.forEach((file, configuration) -> itemPropertiesByFile.put(file, this.loadFile(file, configuration, builder.itemTier())));
+        itemPropertiesByFile.values().forEach(itemPropertiesSet::addAll);
     }
 
-    // region foreach configuration file top keys
-    private void configurationFileAction(final File file, final YamlConfiguration configuration) {
-        boolean disabled = BrewingUtils.isDisabled(configuration);
-        if (disabled) return;
-        Set<String> configurationKeySet = configuration.getKeys(false);
-        configurationKeySet.forEach(key -> this.topKeyAction(file, configuration, key));
+    /**
+     * Rebuilds {@link #itemPropertiesSet} from {@link #itemPropertiesByFile} after single files were patched.
+     *
+     * @param files every item file in load order
+     */
+    public void rebuildItemPropertiesSet(List<File> files) {
+        Map<File, List<ItemProperties>> ordered = Maps.newLinkedHashMap();
+        files.forEach(file -> {
+            List<ItemProperties> items = itemPropertiesByFile.get(file);
+            if (items != null) ordered.put(file, items);
+        });
+        itemPropertiesByFile.clear();
+        itemPropertiesByFile.putAll(ordered);
+
+        itemPropertiesSet.clear();
+        itemPropertiesByFile.values().forEach(itemPropertiesSet::addAll);
     }
-    // endregion
 
-    // region get top section by top key and foreach item by section.getKeys
-    // topKey: tier | substrate | yeast | output
-    private void topKeyAction(final File file, final YamlConfiguration fileConfiguration, final String topKey) {
-        ConfigurationSection topSection = fileConfiguration.getConfigurationSection(topKey);
-        if (topSection == null) {
-            logger.warning(String.format("The key %s in %s does not exist or incorrect", topKey, file.getAbsolutePath()));
-            return;
+    // region foreach configuration file top keys
+    /**
+     * @param configuration null when the file is streamed
+     * @return every item bound from the file, empty when the file is disabled
+     */
+    public List<ItemProperties> loadFile(final File file, final YamlConfiguration configuration, final Map<String, ItemProperties.Content> itemTier) {
+        List<ItemProperties> items = new ArrayList<>();
+        if (configuration == null) {
+            this.streamFileAction(file, itemTier, items);
+            return items;
         }
 
-        Set<String> itemKeySet = topSection.getKeys(false);
-        itemKeySet.forEach(itemKey -> {
-            Type type = Type.getType(topKey.toUpperCase(Locale.ROOT));
-            if (type == null) {
-                logger.warning(String.format("illegal key %s in %s", topKey, file.getAbsolutePath()));
-                return;
-            }
-
-            ItemProperties itemProperties = buildItem(file, topSection, itemKey, type);
-            if (itemProperties == null) return;
-
-            itemPropertiesSet.add(itemProperties);
-        });
+        boolean disabled = BrewingUtils.isDisabled(configuration);
+        if (disabled) return items;
+        configuration.getValues(false).forEach((topKey, topNode) -> this.topKeyAction(file, topKey, topNode, itemTier, items));
+        return items;
     }
     // endregion
 
-    // region build item basic information and add ItemProperties to itemPropertiesSet
-    // itemSection: topKey.xxx
-    private ItemProperties buildItem(final File file, final ConfigurationSection topSection, final String itemKey, final Type type) {
-        ConfigurationSection itemSection = topSection.getConfigurationSection(itemKey);
-        if (itemSection == null) {
-            logger.warning(String.format("The key %s in %s does not exist or incorrect", BrewingUtils.getPath(topSection.getCurrentPath(), itemKey), file.getAbsolutePath()));
-            return null;
-        }
-
-        // required
-        Material material = getMaterial(file, itemSection);
-        if (material == null) return null;
-        if (Type.OUTPUT.equals(type) && !Material.POTION.equals(material)) {
-            logger.warning(String.format("The material %s of key %s in %s is not a potion", material, BrewingUtils.getPath(topSection.getCurrentPath(), itemKey), file.getAbsolutePath()));
-            return null;
-        }
-
-        // required
-        Provider provider = getProvider(file, itemSection);
-        if (provider == null) return null;
-
-        // default: null
-        ItemProperties.Content display = getDisplay(file, itemSection);
-
-        // default: null
-        ArrayList<ItemProperties.Content> lore = getLore(file, itemSection);
-
-        // default: 0
-        int customModuleData = getCustomModuleData(itemSection);
-
-        // default: null
-        String tier = getTier(file, itemSection);
+    // region stream large file, items are bound one by one as their node closes
+    private void streamFileAction(final File file, final Map<String, ItemProperties.Content> itemTier, final List<ItemProperties> items) {
+        StreamingYamlLoader streamingLoader = StreamingYamlLoader.getInstance();
+        Set<String> illegalKeys = new HashSet<>();
+        try {
+            if (streamingLoader.isDisabled(file)) return;
+
+            streamingLoader.stream(file, 2, (keys, node) -> {
+                if (keys.size() == 1) {
+                    this.topKeyAction(file, keys.get(0), node, itemTier, items);
+                    return;
+                }
 
-        ItemProperties.ItemPropertiesBuilder builder = ItemProperties.builder();
+                String topKey = keys.get(0);
+                Type type = binder.type(topKey);
+                if (type == null) {
+                    if (illegalKeys.add(topKey)) binder.problem(String.format("illegal key %s in %s", topKey, file.getAbsolutePath()));
+                    return;
+                }
 
-        switch (type) {
-            case TIER -> {}
-            case SUBSTRATE, OUTPUT -> builder = buildSubstrate(file, itemSection, builder);
-            case YEAST, CONTAINER -> builder = buildYeast(itemSection, builder);
+                this.itemAction(file, topKey, keys.get(1), type, node, itemTier, items);
+            });
+        } catch (IOException e) {
+            binder.problem(String.format("Failed to stream %s: %s", file.getAbsolutePath(), e.getMessage()));
         }
-        if (builder == null) return null;
-
-        return builder
-                .id(itemKey)
-                .type(type)
-                .provider(provider)
-                .display(display)
-                .lore(lore)
-                .material(material)
-                .customModelData(customModuleData)
-                .tier(tier)
-                .build();
     }
     // endregion
 
-    // region build substrate
-    private ItemProperties.ItemPropertiesBuilder buildSubstrate(final File file, final ConfigurationSection itemSection, final ItemProperties.ItemPropertiesBuilder builder) {
-        int restoreFood = getRestoreFood(itemSection); // default: 0
-        double restoreHealth = getRestoreHealth(itemSection); // default: 0.0D
-        double restoreSaturation = getRestoreSaturation(itemSection); // default: 0.0D
-
-        ArrayList<ItemProperties.Effect> effect = getEffect(file, itemSection); // default: null
-        if (effect != null && effect.size() == 0) return null;
-
-        ArrayList<String> command = getCommand(itemSection); // default: null
+    // region bind every item under a top key
+    // topKey: tier | substrate | yeast | output
+    void topKeyAction(final File file, final String topKey, final Object topNode, final Map<String, ItemProperties.Content> itemTier, final List<ItemProperties> items) {
+        Map<?, ?> topSection = ConfigBinder.asMap(topNode);
+        if (topSection == null) {
+            binder.problem(String.format("The key %s in %s does not exist or incorrect", topKey, file.getAbsolutePath()));
+            return;
+        }
 
-        builder.restoreFood(restoreFood)
-                .restoreHealth(restoreHealth)
-                .restoreSaturation(Float.parseFloat(String.valueOf(restoreSaturation)))
-                .effects(effect)
-                .command(command);
+        Type type = binder.type(topKey);
+        if (type == null) {
+            binder.problem(String.format("illegal key %s in %s", topKey, file.getAbsolutePath()));
+            return;
+        }
 
-        return buildYeast(itemSection, builder);
+        topSection.forEach((itemKey, itemNode) -> this.itemAction(file, topKey, String.valueOf(itemKey), type, itemNode, itemTier, items));
     }
-    // endregion
 
-    // region build yeast
-    private ItemProperties.ItemPropertiesBuilder buildYeast(final ConfigurationSection itemSection, final ItemProperties.ItemPropertiesBuilder builder) {
-        return builder.requiredLevel(getRequiredLevel(itemSection));
+    private void itemAction(final File file, final String topKey, final String id, final Type type, final Object itemNode, final Map<String, ItemProperties.Content> itemTier, final List<ItemProperties> items) {
+        ItemProperties itemProperties = binder.bindItem(file, BrewingUtils.getPath(topKey, id), id, type, itemNode, itemTier);
+        if (itemProperties == null) return;
+
+        items.add(itemProperties);
     }
     // endregion
 
@@ -168,4 +146,4 @@ class ItemPropertiesLoader {
         return instance;
     }
     // endregion
-}
\ No newline at end of file
+}
@@ -3,12 +3,12 @@ package com.baioretto.brewing.loader;
 import com.baioretto.baiolib.api.extension.meta.ItemMetaImpl;
 import com.baioretto.baiolib.api.extension.stack.ItemStackImpl;
 import com.baioretto.brewing.bean.ItemProperties;
+import com.baioretto.brewing.bean.RecipeProperties;
 import com.baioretto.brewing.enumerate.Type;
 import com.baioretto.brewing.util.BrewingUtils;
-import com.google.common.collect.Maps;
-import de.tr7zw.nbtapi.NBTItem;
-import com.baioretto.brewing.Container;
 import com.baioretto.brewing.enumerate.Provider;
+import com.baioretto.brewing.registry.BrewingRegistry;
+import com.baioretto.brewing.registry.ItemKey;
 import com.baioretto.brewing.util.ConfigurationUtils;
 import lombok.experimental.ExtensionMethod;
 import net.kyori.adventure.text.Component;
@@ -32,90 +32,81 @@ class ItemStackLoader {
     private final Set<ItemProperties> itemPropertiesSet = ItemPropertiesLoader.instance().itemPropertiesSet();
 
     // region convert recipe to item stack
-    public void convertRecipeToItemStack() {
-        if (Container.RECIPE_PROPERTIES.size() == 0) return;
-        Container.RECIPE_PROPERTIES.forEach((id, recipeProperties) -> {
-            ItemProperties.Content display = recipeProperties.display();
+    public void convertRecipeToItemStack(BrewingRegistry.Builder builder) {
+        if (builder.recipeProperties().size() == 0) return;
+        builder.recipeProperties().values().forEach(recipeProperties -> this.convertRecipeToItemStack(recipeProperties, builder));
+    }
 
-            ArrayList<ItemProperties.Content> lore = recipeProperties.lore(); // nullable
+    // build the gui display item of a single recipe
+    public void convertRecipeToItemStack(final RecipeProperties recipeProperties, final BrewingRegistry.Builder builder) {
+        ItemProperties.Content display = recipeProperties.display();
 
-            ItemStack output = recipeProperties.output();
-            Material material = output.getType();
-            int customModelData = output.getItemMeta() == null ? 0 : output.getItemMeta().getCustomModelData();
+        ArrayList<ItemProperties.Content> lore = recipeProperties.lore(); // nullable
 
-            ItemStack itemStack = new ItemStack(material);
-            itemStack.editMeta(itemMeta -> {
-                itemMeta.displayName(ConfigurationUtils.getDisplayComponent(display));
-                itemMeta.setCustomModelData(customModelData);
-                itemMeta.addItemFlags(ItemFlag.HIDE_POTION_EFFECTS);
-                if (lore != null) itemMeta.lore(ConfigurationUtils.getLoreComponent(lore, itemMeta));
-            });
-
-            String level = recipeProperties.level();
-            Map<String, ItemStack> recipeMap = Container.RECIPE_DISPLAY_ITEMS.get(level);
-            if (recipeMap == null) recipeMap = new TreeMap<>();
-            recipeMap.put(id, itemStack);
-            Container.RECIPE_DISPLAY_ITEMS.put(level, recipeMap);
+        ItemStack output = builder.itemStack(recipeProperties.output());
+        if (output == null) return;
+        Material material = output.getType();
+        int customModelData = output.getItemMeta() == null ? 0 : output.getItemMeta().getCustomModelData();
+
+        ItemStack itemStack = new ItemStack(material);
+        itemStack.editMeta(itemMeta -> {
+            itemMeta.displayName(ConfigurationUtils.getDisplayComponent(display));
+            itemMeta.setCustomModelData(customModelData);
+            itemMeta.addItemFlags(ItemFlag.HIDE_POTION_EFFECTS);
+            if (lore != null) itemMeta.lore(ConfigurationUtils.getLoreComponent(lore, itemMeta));
         });
+
+        builder.recipeDisplayItem(recipeProperties.level(), recipeProperties.id(), itemStack);
     }
     // endregion
 
     // region convert properties to item stack
-    public void convertPropertiesToItemStack() {
+    public void convertPropertiesToItemStack(BrewingRegistry.Builder builder) {
         if (itemPropertiesSet.size() == 0) {
             return;
         }
 
-        Container.ITEM_STACK_MAP.clear();
-
-        itemPropertiesSet.forEach(this::categorizeItem);
+        itemPropertiesSet.forEach(itemProperties -> this.categorizeItem(itemProperties, builder));
     }
 
     // region categorize item
     @SuppressWarnings("SwitchStatementWithTooFewBranches")
-    private void categorizeItem(final ItemProperties itemProperties) {
+    public void categorizeItem(final ItemProperties itemProperties, final BrewingRegistry.Builder builder) {
         Provider provider = itemProperties.provider();
         String id = itemProperties.id();
 
         ItemStack itemStack;
         switch (provider) {
-            case VANILLA -> itemStack = buildVanillaItemStack(itemProperties);
+            case VANILLA -> itemStack = buildVanillaItemStack(itemProperties, builder.itemTier());
             default -> {
                 return;
             }
         }
 
+        if (itemProperties.tier() != null) builder.tierByItem().put(ItemKey.of(itemProperties.type(), id), itemProperties.tier());
+
         // add to map
         switch (itemProperties.type()) {
-            case TIER -> push(Type.TIER, id, itemStack);
-            case SUBSTRATE -> push(Type.SUBSTRATE, id, itemStack);
-            case YEAST -> push(Type.YEAST, id, itemStack);
-            case OUTPUT -> push(Type.OUTPUT, id, itemStack);
-            case CONTAINER -> push(Type.CONTAINER, id, itemStack);
+            case TIER -> push(builder, Type.TIER, id, itemStack);
+            case SUBSTRATE -> push(builder, Type.SUBSTRATE, id, itemStack);
+            case YEAST -> push(builder, Type.YEAST, id, itemStack);
+            case OUTPUT -> push(builder, Type.OUTPUT, id, itemStack);
+            case CONTAINER -> push(builder, Type.CONTAINER, id, itemStack);
         }
     }
     // endregion
 
     // region push to map
-    private void push(Type type, String id, ItemStack itemStack) {
-        Map<String, ItemStack> map = Container.ITEM_STACK_MAP.get(type);
-        if (map == null) map = Maps.newHashMap();
-        map.put(id, getItemStackWithNbtTag(type, getItemStackWithNbtTag(type, itemStack)));
-        Container.ITEM_STACK_MAP.put(type, map);
-    }
-    // endregion
-
-    // region add nbt tag
-    private ItemStack getItemStackWithNbtTag(Type type, ItemStack itemStack) {
-        NBTItem nbtItem = new NBTItem(itemStack);
-        nbtItem.setObject("BrewingItemType", type);
-        return nbtItem.getItem();
+    // the identity stamp is added once the ids are final, see BrewingRegistry.Builder#build
+    private void push(BrewingRegistry.Builder builder, Type type, String id, ItemStack itemStack) {
+        builder.intern(ItemKey.of(type, id));
+        builder.itemStacks(type).put(id, itemStack);
     }
     // endregion
 
     // region build item stack
     @SuppressWarnings("BigDecimalMethodWithoutRoundingCalled")
-    private ItemStack buildVanillaItemStack(final ItemProperties itemProperties) {
+    private ItemStack buildVanillaItemStack(final ItemProperties itemProperties, final Map<String, ItemProperties.Content> itemTier) {
         Material material = itemProperties.material();
 
         ItemStack itemStack = new ItemStack(material);
@@ -179,7 +170,7 @@ class ItemStackLoader {
             String tier = itemProperties.tier();
             if (tier != null) {
                 List<Component> loreList = ConfigurationUtils.getLoreList(itemMeta);
-                loreList.add(ConfigurationUtils.getTierComponent(Container.ITEM_TIER.get(tier)));
+                loreList.add(ConfigurationUtils.getTierComponent(itemTier.get(tier)));
                 itemMeta.lore(loreList);
             }
 
@@ -0,0 +1,150 @@
+package com.baioretto.brewing.loader;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads a yaml file from SnakeYAML parse events without building the whole document.
+ *
+ * <p>Mappings above {@code depth} are walked event by event, every node at {@code depth} is
+ * composed into plain maps, lists and scalars and handed to the consumer as soon as it closes.
+ * Peak memory is bounded by the largest single entry rather than the file size.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class StreamingYamlLoader {
+    private final Resolver resolver = new Resolver();
+
+    // region disabled header
+    /**
+     * Same rule as {@link com.baioretto.brewing.util.BrewingUtils#isDisabled}, read from the first line only.
+     */
+    public boolean isDisabled(File file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null || !line.startsWith("#")) return false;
+            return line.substring(1).trim().equalsIgnoreCase("disable");
+        }
+    }
+    // endregion
+
+    // region stream
+    /**
+     * @param depth    number of mapping keys above every emitted node, 1 for recipes and 2 for items
+     * @param consumer receives the keys leading to the node and the composed node, nodes that are
+     *                 not mappings are emitted early with fewer keys
+     */
+    public void stream(File file, int depth, BiConsumer<List<String>, Object> consumer) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Iterator<Event> events = new Yaml().parse(reader).iterator();
+            Map<String, Object> anchors = new HashMap<>();
+            while (events.hasNext()) {
+                Event event = events.next();
+                if (event instanceof MappingStartEvent) {
+                    streamMapping(events, new ArrayList<>(depth), depth, consumer, anchors);
+                } else if (event instanceof SequenceStartEvent || event instanceof ScalarEvent) {
+                    throw new YAMLException("The root of " + file.getName() + " is not a mapping");
+                }
+            }
+        } catch (YAMLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private void streamMapping(Iterator<Event> events, List<String> keys, int depth, BiConsumer<List<String>, Object> consumer, Map<String, Object> anchors) {
+        while (true) {
+            Event event = events.next();
+            if (event instanceof MappingEndEvent) return;
+
+            keys.add(String.valueOf(compose(event, events, anchors)));
+            Event value = events.next();
+            if (keys.size() < depth && value instanceof MappingStartEvent) {
+                streamMapping(events, keys, depth, consumer, anchors);
+            } else {
+                consumer.accept(List.copyOf(keys), compose(value, events, anchors));
+            }
+            keys.remove(keys.size() - 1);
+        }
+    }
+    // endregion
+
+    // region compose
+    private Object compose(Event event, Iterator<Event> events, Map<String, Object> anchors) {
+        if (event instanceof AliasEvent alias) {
+            if (!anchors.containsKey(alias.getAnchor())) throw new YAMLException("Unknown alias " + alias.getAnchor());
+            return anchors.get(alias.getAnchor());
+        }
+
+        Object node;
+        if (event instanceof ScalarEvent scalar) {
+            node = resolveScalar(scalar);
+        } else if (event instanceof SequenceStartEvent) {
+            List<Object> list = new ArrayList<>();
+            for (Event next = events.next(); !(next instanceof SequenceEndEvent); next = events.next()) {
+                list.add(compose(next, events, anchors));
+            }
+            node = list;
+        } else if (event instanceof MappingStartEvent) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Event next = events.next(); !(next instanceof MappingEndEvent); next = events.next()) {
+                String key = String.valueOf(compose(next, events, anchors));
+                map.put(key, compose(events.next(), events, anchors));
+            }
+            node = map;
+        } else {
+            throw new YAMLException("Unexpected event " + event);
+        }
+
+        // only anchored nodes are kept, plain config files keep nothing between entries
+        String anchor = ((NodeEvent) event).getAnchor();
+        if (anchor != null) anchors.put(anchor, node);
+        return node;
+    }
+
+    private Object resolveScalar(ScalarEvent scalar) {
+        String value = scalar.getValue();
+        Tag tag = scalar.getTag() == null || "!".equals(scalar.getTag())
+                ? resolver.resolve(NodeId.scalar, value, scalar.getImplicit().canOmitTagInPlainScalar())
+                : new Tag(scalar.getTag());
+
+        try {
+            if (Tag.NULL.equals(tag)) return null;
+            if (Tag.BOOL.equals(tag)) return BOOLEANS.contains(value.toLowerCase(Locale.ROOT));
+            if (Tag.INT.equals(tag)) {
+                long number = Long.decode(value.replace("_", ""));
+                return number == (int) number ? (Object) (int) number : (Object) number;
+            }
+            if (Tag.FLOAT.equals(tag)) return Double.parseDouble(value.replace("_", ""));
+        } catch (NumberFormatException ignored) {
+            // sexagesimal and other rare yaml 1.1 forms stay strings
+        }
+        return value;
+    }
+
+    private static final Set<String> BOOLEANS = Set.of("true", "yes", "on", "y");
+    // endregion
+
+    // region get instance
+    private static class LoaderInstance {
+        static final StreamingYamlLoader instance = new StreamingYamlLoader();
+    }
+
+    public static StreamingYamlLoader getInstance() {
+        return LoaderInstance.instance;
+    }
+    // endregion
+}
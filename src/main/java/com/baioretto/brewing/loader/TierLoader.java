@@ -4,24 +4,18 @@ import com.baioretto.baiolib.api.extension.logger.LoggerImpl;
 import com.baioretto.brewing.bean.ItemProperties;
 import com.baioretto.brewing.enumerate.Type;
 import com.baioretto.brewing.util.BrewingUtils;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.baioretto.brewing.Container;
 import com.baioretto.brewing.Brewing;
-import com.baioretto.brewing.util.ConfigurationUtils;
+import com.baioretto.brewing.registry.BrewingRegistry;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.experimental.ExtensionMethod;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
 import java.util.logging.Logger;
 
 // loading recipe-tier and item-tier from config.yml
@@ -30,48 +24,45 @@ import java.util.logging.Logger;
 class TierLoader {
     private final Logger logger = Brewing.instance().getLogger();
 
+    private final ConfigBinder binder = ConfigBinder.getInstance();
+
     // load item tier
-    public void loadItemTierContents() {
+    public void loadItemTierContents(BrewingRegistry.Builder builder) {
         LinkedHashMap<File, YamlConfiguration> configurationFileList = ConfigurationLoader.CONFIGURATION_LIST.get(ConfigurationLoader.ConfigEnum.DEFAULT_CONFIG);
 
         if (configurationFileList == null || configurationFileList.isEmpty()) return;
 
-        Container.ITEM_TIER.clear();
-
         configurationFileList.forEach((file, configuration) -> {
-            ConfigurationSection itemTierSection = configuration.getConfigurationSection("item-tier");
+            Map<?, ?> itemTierSection = ConfigBinder.asMap(configuration.get("item-tier"));
 
             if (itemTierSection == null) {
                 return;
             }
-            Set<String> tierKeySet = itemTierSection.getKeys(false);
-            tierKeySet.forEach(tierKey -> {
-                ConfigurationSection keySection = itemTierSection.getConfigurationSection(tierKey);
+            itemTierSection.forEach((tierKey, tierNode) -> {
+                String path = BrewingUtils.getPath("item-tier", String.valueOf(tierKey));
+                Map<?, ?> keySection = ConfigBinder.asMap(tierNode);
                 if (keySection == null) {
-                    String keyString = itemTierSection.getString(tierKey);
-                    if (keyString == null || keyString.isBlank()) {
-                        logger.warn(String.format("The key %s in %s does not exist or incorrect", BrewingUtils.getPath(itemTierSection.getCurrentPath(), tierKey), file.getAbsolutePath()));
+                    if (tierNode == null || tierNode.toString().isBlank()) {
+                        binder.problem(String.format("The key %s in %s does not exist or incorrect", path, file.getAbsolutePath()));
                         return;
                     }
-                    Container.ITEM_TIER.put(tierKey, ItemProperties.getContent().text(keyString));
+                    builder.itemTier().put(String.valueOf(tierKey), ItemProperties.getContent().text(tierNode.toString()));
                     return;
                 }
 
-                ItemProperties.Content tier = ConfigurationUtils.getContent(file, keySection);
+                ItemProperties.Content tier = binder.bindContent(file, path, keySection);
                 if (tier == null) return;
-                Container.ITEM_TIER.put(tierKey, tier);
+                builder.itemTier().put(String.valueOf(tierKey), tier);
             });
         });
     }
 
     // load recipe tier
-    public void loadRecipeTier() {
+    public void loadRecipeTier(BrewingRegistry.Builder builder) {
         LinkedHashMap<File, YamlConfiguration> configurationFileList = ConfigurationLoader.CONFIGURATION_LIST.get(ConfigurationLoader.ConfigEnum.DEFAULT_CONFIG);
 
         if (configurationFileList == null || configurationFileList.isEmpty()) return;
 
-        Container.RECIPE_TIER.clear();
-
         configurationFileList.forEach((file, configuration) -> {
             List<?> recipeTierList = configuration.getList("recipe-tier");
 
@@ -80,37 +71,65 @@ class TierLoader {
                 return;
             }
 
-            AtomicInteger atomicInteger = new AtomicInteger();
-            recipeTierList.forEach(recipeTier -> {
-                int index = atomicInteger.getAndIncrement();
+            for (int index = 0; index < recipeTierList.size(); index++) {
                 if (index > 3) {
                     logger.warn("The recipe-tier in config.yml can only have up to four levels. The plugin will not record the excess part");
                     return;
                 }
 
-                JsonObject object = JsonParser.parseString(recipeTier.toString()).getAsJsonObject();
-                JsonElement levelElement = object.get("level");
-                if (levelElement == null) {
-                    logger.warn(String.format("The key %s in %s does not exist or incorrect", BrewingUtils.getPath("recipe-tier[" + index + "]", "level"), file.getAbsolutePath()));
-                    return;
+                String path = "recipe-tier[" + index + "]";
+                Map<?, ?> recipeTier = ConfigBinder.asMap(recipeTierList.get(index));
+                if (recipeTier == null) {
+                    binder.problem(String.format("The key %s in %s does not exist or incorrect", path, file.getAbsolutePath()));
+                    continue;
                 }
-                String level = levelElement.getAsString();
 
-                JsonElement itemElement = object.get("item");
-                if (itemElement == null) {
-                    logger.warn(String.format("The key %s in %s does not exist or incorrect", BrewingUtils.getPath("recipe-tier[" + index + "]", "item"), file.getAbsolutePath()));
-                    return;
+                Object levelValue = recipeTier.get("level");
+                if (levelValue == null) {
+                    binder.problem(String.format("The key %s in %s does not exist or incorrect", BrewingUtils.getPath(path, "level"), file.getAbsolutePath()));
+                    continue;
                 }
-                String itemString = itemElement.getAsString();
+                String level = levelValue.toString();
 
-                ItemStack item = Container.ITEM_STACK_MAP.get(Type.TIER).getOrDefault(itemString, null);
+                Object itemValue = recipeTier.get("item");
+                if (itemValue == null) {
+                    binder.problem(String.format("The key %s in %s does not exist or incorrect", BrewingUtils.getPath(path, "item"), file.getAbsolutePath()));
+                    continue;
+                }
+                String itemString = itemValue.toString();
+
+                ItemStack item = builder.itemStacks(Type.TIER).getOrDefault(itemString, null);
                 if (item == null) {
-                    logger.warn(String.format("The value %s of key %s in %s does not exist or incorrect", itemString, BrewingUtils.getPath("recipe-tier[" + index + "]", "item"), file.getAbsolutePath()));
-                    return;
+                    binder.problem(String.format("The value %s of key %s in %s does not exist or incorrect", itemString, BrewingUtils.getPath(path, "item"), file.getAbsolutePath()));
+                    continue;
                 }
 
-                Container.RECIPE_TIER.put(level, item);
-            });
+                builder.recipeTier().put(level, item);
+                builder.tierItemByLevel().put(level, itemString);
+            }
+        });
+    }
+
+    // apply recipe tier read from the catalog cache
+    public void applyRecipeTier(BrewingRegistry.Builder builder, Map<String, String> recipeTier) {
+        recipeTier.forEach((level, itemString) -> {
+            ItemStack item = builder.itemStacks(Type.TIER).get(itemString);
+            if (item == null) throw new IllegalStateException("Unknown tier item " + itemString);
+            builder.recipeTier().put(level, item);
+            builder.tierItemByLevel().put(level, itemString);
+        });
+    }
+
+    // resolve the recipe tier items again after tier items were patched
+    public void relinkRecipeTier(BrewingRegistry.Builder builder) {
+        builder.recipeTier().clear();
+        builder.tierItemByLevel().forEach((level, itemString) -> {
+            ItemStack item = builder.itemStacks(Type.TIER).get(itemString);
+            if (item == null) {
+                binder.problem(String.format("The recipe-tier %s is dropped, its tier item %s no longer exists", level, itemString));
+                return;
+            }
+            builder.recipeTier().put(level, item);
         });
     }
 
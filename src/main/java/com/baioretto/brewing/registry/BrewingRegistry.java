@@ -0,0 +1,273 @@
+package com.baioretto.brewing.registry;
+
+import com.baioretto.brewing.bean.ItemProperties;
+import com.baioretto.brewing.bean.RecipeProperties;
+import com.baioretto.brewing.enumerate.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable snapshot of everything loaded from the config files.
+ *
+ * <p>A snapshot is built entirely by the loaders through a {@link Builder} and then published
+ * with {@link com.baioretto.brewing.Container#publish(BrewingRegistry)}. Readers hold on to the
+ * snapshot they got from {@link com.baioretto.brewing.Container#registry()} and never see a
+ * half-filled map. The {@link ItemStack}s inside are shared, clone them before handing them out.
+ */
+@Getter
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+public final class BrewingRegistry {
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    public static final BrewingRegistry EMPTY = new Builder().build();
+
+    /**
+     * increased on every published snapshot
+     */
+    long version;
+
+    /**
+     * item-tier mapping in config.yml
+     */
+    ImmutableMap<String, ItemProperties.Content> itemTier;
+
+    /**
+     * recipe-tier mapping in config.yml
+     * key is recipe-tier.level
+     * value is ((ItemStack) recipe-tier.item)
+     */
+    ImmutableSortedMap<String, ItemStack> recipeTier;
+
+    /**
+     * recipes mapping in recipes folder
+     */
+    ImmutableMap<String, RecipeProperties> recipeProperties;
+
+    /**
+     * Recipe gui display item mapping.
+     *
+     * <p><pre>
+     *  String  -----  (String  -----  ItemStack)
+     *    |               |                |
+     *  level         outputId       outputItemStack
+     *  </pre>
+     */
+    ImmutableMap<String, ImmutableSortedMap<String, ItemStack>> recipeDisplayItems;
+
+    /**
+     * Stores tier, substrate, yeast, output, container.
+     *
+     * <p><pre>
+     *  Type  -----  (String  -----  ItemStack)
+     *    |             |                |
+     *  itemType      itemId          itemStack
+     *  </pre>
+     */
+    ImmutableMap<Type, ImmutableMap<String, ItemStack>> itemStackMap;
+
+    /**
+     * links between items, tiers and recipes, see {@link DependencyGraph}
+     */
+    DependencyGraph dependencies;
+
+    /**
+     * ingredient - recipes inverted index, see {@link RecipeIndex}
+     */
+    RecipeIndex recipeIndex;
+
+    /**
+     * item stack - interned id lookup, see {@link ItemResolver}
+     */
+    ItemResolver itemResolver;
+
+    /**
+     * interned item ids, the index of a key is its id, ids stay stable while a snapshot is patched
+     */
+    ImmutableList<ItemKey> itemKeys;
+
+    ImmutableMap<ItemKey, Integer> itemIds;
+
+    /**
+     * changes only when the interned ids change, stamped into every item, see {@link ItemStamp}
+     */
+    long catalogVersion;
+
+    /**
+     * item stack of every interned id, null for ids whose item was removed by a patch
+     */
+    @Getter(AccessLevel.NONE)
+    ItemStack[] itemStacksById;
+
+    public @NotNull Map<String, ItemStack> itemStacks(Type type) {
+        return itemStackMap.getOrDefault(type, ImmutableMap.of());
+    }
+
+    public @Nullable ItemStack itemStack(Type type, String id) {
+        return itemStacks(type).get(id);
+    }
+
+    /**
+     * @return the interned id of the item, -1 if there is no such item
+     */
+    public int itemId(Type type, String id) {
+        return itemIds.getOrDefault(ItemKey.of(type, id), -1);
+    }
+
+    public @NotNull ItemKey itemKey(int id) {
+        return itemKeys.get(id);
+    }
+
+    public @Nullable ItemStack itemStack(int id) {
+        return id < 0 || id >= itemStacksById.length ? null : itemStacksById[id];
+    }
+
+    public @Nullable RecipeProperties recipe(String id) {
+        return recipeProperties.get(id);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a builder holding a mutable copy of this snapshot, used to patch single entries
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.itemTier.putAll(itemTier);
+        builder.recipeTier.putAll(recipeTier);
+        builder.recipeProperties.putAll(recipeProperties);
+        recipeDisplayItems.forEach((level, items) -> builder.recipeDisplayItems.put(level, new TreeMap<>(items)));
+        itemStackMap.forEach((type, items) -> builder.itemStacks(type).putAll(items));
+        builder.tierByItem.putAll(dependencies.tierByItem());
+        builder.itemKeys.addAll(itemKeys);
+        builder.itemIds.putAll(itemIds);
+        dependencies.tierItemByLevel().forEach((level, item) -> builder.tierItemByLevel.put(level, item.id()));
+        return builder;
+    }
+
+    /**
+     * Mutable staging area used by the loaders, only ever touched by the loading thread.
+     */
+    @Getter
+    @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+    @Accessors(fluent = true)
+    public static class Builder {
+        Map<String, ItemProperties.Content> itemTier = Maps.newHashMap();
+        Map<String, ItemStack> recipeTier = Maps.newTreeMap();
+        Map<String, RecipeProperties> recipeProperties = Maps.newLinkedHashMap();
+        Map<String, Map<String, ItemStack>> recipeDisplayItems = Maps.newLinkedHashMap();
+        Map<Type, Map<String, ItemStack>> itemStackMap = Maps.newEnumMap(Type.class);
+
+        /**
+         * item - item-tier, filled while item stacks are built
+         */
+        Map<ItemKey, String> tierByItem = Maps.newHashMap();
+
+        /**
+         * recipe-tier level - tier item id
+         */
+        Map<String, String> tierItemByLevel = Maps.newTreeMap();
+
+        List<ItemKey> itemKeys = new ArrayList<>();
+        Map<ItemKey, Integer> itemIds = Maps.newHashMap();
+
+        private Builder() {
+        }
+
+        /**
+         * @return the id of the key, a new dense id if it was not interned yet
+         */
+        public int intern(ItemKey key) {
+            Integer id = itemIds.get(key);
+            if (id != null) return id;
+            itemIds.put(key, itemKeys.size());
+            itemKeys.add(key);
+            return itemKeys.size() - 1;
+        }
+
+        /**
+         * @return the id of an existing item, -1 if the item does not exist in this builder
+         */
+        public int itemId(Type type, String id) {
+            if (!itemStacks(type).containsKey(id)) return -1;
+            return itemIds.getOrDefault(ItemKey.of(type, id), -1);
+        }
+
+        public @Nullable ItemStack itemStack(int id) {
+            if (id < 0 || id >= itemKeys.size()) return null;
+            ItemKey key = itemKeys.get(id);
+            return itemStacks(key.type()).get(key.id());
+        }
+
+        public @NotNull Map<String, ItemStack> itemStacks(Type type) {
+            return itemStackMap.computeIfAbsent(type, t -> Maps.newLinkedHashMap());
+        }
+
+        public void recipeDisplayItem(String level, String id, ItemStack itemStack) {
+            recipeDisplayItems.computeIfAbsent(level, l -> new TreeMap<>()).put(id, itemStack);
+        }
+
+        public void removeRecipeDisplayItem(String level, String id) {
+            Map<String, ItemStack> items = recipeDisplayItems.get(level);
+            if (items == null) return;
+            items.remove(id);
+            if (items.isEmpty()) recipeDisplayItems.remove(level);
+        }
+
+        public BrewingRegistry build() {
+            ImmutableMap.Builder<String, ImmutableSortedMap<String, ItemStack>> displayItems = ImmutableMap.builder();
+            recipeDisplayItems.forEach((level, items) -> displayItems.put(level, ImmutableSortedMap.copyOf(items)));
+
+            // stamp copies, stacks shared with an earlier registry stay untouched
+            long catalogVersion = ItemStamp.catalogVersion(itemKeys);
+            for (int id = 0; id < itemKeys.size(); id++) {
+                ItemKey key = itemKeys.get(id);
+                ItemStack itemStack = itemStackMap.containsKey(key.type()) ? itemStackMap.get(key.type()).get(key.id()) : null;
+                if (itemStack != null) itemStackMap.get(key.type()).put(key.id(), ItemStamp.stamp(itemStack, id, catalogVersion, key));
+            }
+
+            ImmutableMap.Builder<Type, ImmutableMap<String, ItemStack>> itemStacks = ImmutableMap.builder();
+            itemStackMap.forEach((type, items) -> itemStacks.put(type, ImmutableMap.copyOf(items)));
+
+            ItemStack[] itemStacksById = new ItemStack[itemKeys.size()];
+            for (int id = 0; id < itemStacksById.length; id++) {
+                itemStacksById[id] = itemStack(id);
+            }
+
+            return new BrewingRegistry(
+                    VERSION.getAndIncrement(),
+                    ImmutableMap.copyOf(itemTier),
+                    ImmutableSortedMap.copyOf(recipeTier),
+                    ImmutableMap.copyOf(recipeProperties),
+                    displayItems.build(),
+                    itemStacks.build(),
+                    DependencyGraph.of(tierByItem, tierItemByLevel, recipeProperties.values(), itemKeys),
+                    RecipeIndex.of(recipeProperties.values(), itemKeys.size()),
+                    ItemResolver.of(itemStacksById, itemKeys, catalogVersion),
+                    ImmutableList.copyOf(itemKeys),
+                    ImmutableMap.copyOf(itemIds),
+                    catalogVersion,
+                    itemStacksById
+            );
+        }
+    }
+}
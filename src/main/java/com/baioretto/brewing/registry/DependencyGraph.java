@@ -0,0 +1,98 @@
+package com.baioretto.brewing.registry;
+
+import com.baioretto.brewing.bean.RecipeProperties;
+import com.baioretto.brewing.enumerate.Type;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSetMultimap;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Links between the loaded entries, built with every {@link BrewingRegistry}.
+ *
+ * <p><pre>
+ *  item-tier  -----  items whose lore shows it
+ *  item       -----  recipes using it as substrate, yeast, extra, container or output
+ *  tier item  -----  recipe-tier levels showing it
+ *  </pre>
+ * A recipe display item is derived from the recipe output, so it follows the output edge.
+ */
+@Getter
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+public final class DependencyGraph {
+    public static final DependencyGraph EMPTY = of(ImmutableMap.of(), ImmutableMap.of(), List.of(), List.of());
+
+    /**
+     * item - ids of the recipes referencing it
+     */
+    ImmutableSetMultimap<ItemKey, String> recipesByItem;
+
+    /**
+     * item-tier - items showing it in their lore
+     */
+    ImmutableSetMultimap<String, ItemKey> itemsByTier;
+
+    /**
+     * item - item-tier shown in its lore
+     */
+    ImmutableMap<ItemKey, String> tierByItem;
+
+    /**
+     * recipe-tier level - tier item shown for it
+     */
+    ImmutableMap<String, ItemKey> tierItemByLevel;
+
+    /**
+     * tier item - recipe-tier levels showing it
+     */
+    ImmutableSetMultimap<ItemKey, String> levelsByTierItem;
+
+    public Set<String> recipesUsing(ItemKey item) {
+        return recipesByItem.get(item);
+    }
+
+    public Set<ItemKey> itemsWithTier(String tier) {
+        return itemsByTier.get(tier);
+    }
+
+    public @Nullable String tierOf(ItemKey item) {
+        return tierByItem.get(item);
+    }
+
+    /**
+     * @param tierByItem      item - item-tier, items without a tier are left out
+     * @param tierItemByLevel recipe-tier level - tier item id
+     * @param itemKeys        interned item keys, the index is the id used by the recipes
+     */
+    static DependencyGraph of(Map<ItemKey, String> tierByItem, Map<String, String> tierItemByLevel, Collection<RecipeProperties> recipes, List<ItemKey> itemKeys) {
+        ImmutableSetMultimap.Builder<ItemKey, String> recipesByItem = ImmutableSetMultimap.builder();
+        for (RecipeProperties recipe : recipes) {
+            for (int[] ids : new int[][]{recipe.substrates(), recipe.containers(), recipe.yeasts(), recipe.extras()}) {
+                for (int id : ids) {
+                    recipesByItem.put(itemKeys.get(id), recipe.id());
+                }
+            }
+            recipesByItem.put(itemKeys.get(recipe.output()), recipe.id());
+        }
+
+        ImmutableSetMultimap.Builder<String, ItemKey> itemsByTier = ImmutableSetMultimap.builder();
+        tierByItem.forEach((item, tier) -> itemsByTier.put(tier, item));
+
+        ImmutableMap.Builder<String, ItemKey> tierItems = ImmutableMap.builder();
+        ImmutableSetMultimap.Builder<ItemKey, String> levelsByTierItem = ImmutableSetMultimap.builder();
+        tierItemByLevel.forEach((level, id) -> {
+            tierItems.put(level, ItemKey.of(Type.TIER, id));
+            levelsByTierItem.put(ItemKey.of(Type.TIER, id), level);
+        });
+
+        return new DependencyGraph(recipesByItem.build(), itemsByTier.build(), ImmutableMap.copyOf(tierByItem), tierItems.build(), levelsByTierItem.build());
+    }
+}
@@ -0,0 +1,18 @@
+package com.baioretto.brewing.registry;
+
+import com.baioretto.brewing.enumerate.Type;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Identity of a configured item, the id alone is only unique inside one {@link Type}.
+ */
+public record ItemKey(@NotNull Type type, @NotNull String id) {
+    public static ItemKey of(Type type, String id) {
+        return new ItemKey(type, id);
+    }
+
+    @Override
+    public String toString() {
+        return type.getString() + ':' + id;
+    }
+}
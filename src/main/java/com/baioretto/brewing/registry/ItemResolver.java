@@ -0,0 +1,104 @@
+package com.baioretto.brewing.registry;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Resolves an {@link ItemStack} back to its interned item id, built with every {@link BrewingRegistry}.
+ *
+ * <p><pre>
+ *  material                        -----  used by some item, checked before the meta is read
+ *  material, custom model data     -----  item ids with that model
+ *  type:id                         -----  item id, for stamps of an older catalog version
+ *  </pre>
+ * Every brewing item carries a custom model data, a stack without one is never a brewing item.
+ * Past that pre-check the {@link ItemStamp} decides. Items that are not stamped yet fall back to
+ * the model alone, or to comparing against the stacks when several items share it.
+ */
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ItemResolver {
+    ImmutableSet<Material> materials;
+
+    ImmutableMap<Long, int[]> byModel;
+
+    ImmutableMap<String, Integer> byKey;
+
+    ItemStack[] itemStacksById;
+
+    long catalogVersion;
+
+    /**
+     * @return the interned id of the item, -1 if it is no brewing item
+     */
+    public int resolve(@Nullable ItemStack itemStack) {
+        if (itemStack == null || !materials.contains(itemStack.getType())) return -1;
+
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        if (itemMeta == null || !itemMeta.hasCustomModelData()) return -1;
+
+        int[] ids = byModel.get(model(itemStack.getType(), itemMeta.getCustomModelData()));
+        if (ids == null) return -1;
+
+        PersistentDataContainer data = itemMeta.getPersistentDataContainer();
+        long[] stamp = data.get(ItemStamp.Keys.STAMP, PersistentDataType.LONG_ARRAY);
+        if (stamp != null && stamp.length == 2) {
+            if (stamp[0] == catalogVersion) return contains(ids, (int) stamp[1]) ? (int) stamp[1] : -1;
+            Integer id = byKey.get(data.getOrDefault(ItemStamp.Keys.KEY, PersistentDataType.STRING, ""));
+            return id != null && contains(ids, id) ? id : -1;
+        }
+
+        // not stamped yet, an item of an older version
+        if (ids.length == 1) return ids[0];
+
+        for (int id : ids) {
+            if (itemStacksById[id].isSimilar(itemStack)) return id;
+        }
+        return -1;
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int candidate : ids) {
+            if (candidate == id) return true;
+        }
+        return false;
+    }
+
+    private static long model(Material material, int customModelData) {
+        return (long) material.ordinal() << 32 | customModelData & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @param itemStacksById item stack of every interned id, null for removed items
+     */
+    static ItemResolver of(ItemStack[] itemStacksById, List<ItemKey> itemKeys, long catalogVersion) {
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        Map<Long, int[]> byModel = new HashMap<>();
+        for (int id = 0; id < itemStacksById.length; id++) {
+            ItemStack itemStack = itemStacksById[id];
+            ItemMeta itemMeta = itemStack == null ? null : itemStack.getItemMeta();
+            if (itemMeta == null || !itemMeta.hasCustomModelData()) continue;
+
+            materials.add(itemStack.getType());
+            int[] ids = byModel.getOrDefault(model(itemStack.getType(), itemMeta.getCustomModelData()), new int[0]);
+            ids = Arrays.copyOf(ids, ids.length + 1);
+            ids[ids.length - 1] = id;
+            byModel.put(model(itemStack.getType(), itemMeta.getCustomModelData()), ids);
+        }
+        Map<String, Integer> byKey = new HashMap<>();
+        for (int id = 0; id < itemKeys.size(); id++) byKey.put(itemKeys.get(id).toString(), id);
+        return new ItemResolver(Sets.immutableEnumSet(materials), ImmutableMap.copyOf(byModel), ImmutableMap.copyOf(byKey), itemStacksById, catalogVersion);
+    }
+}
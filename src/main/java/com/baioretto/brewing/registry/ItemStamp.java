@@ -0,0 +1,147 @@
+package com.baioretto.brewing.registry;
+
+import com.baioretto.brewing.Brewing;
+import com.baioretto.brewing.enumerate.Tag;
+import de.tr7zw.nbtapi.NBTItem;
+import lombok.experimental.UtilityClass;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Identity stamp of brewing items, kept in the persistent data container of the item meta.
+ *
+ * <p><pre>
+ *  brewing:stamp   long[] {catalog version, interned id}
+ *  brewing:key     type:id, finds the item again once the catalog version no longer matches
+ *  brewing:barrel  byte, marks the brewing barrel item
+ *  </pre>
+ * Reading a stamp is a lookup in the meta, no nbt is copied or walked. The catalog version only
+ * changes when the interned ids change, see {@link BrewingRegistry#catalogVersion()}. Items of
+ * older versions carry the nbt tags {@code BrewingItemType} and {@code Brewing:barrel} instead,
+ * {@link #migrate(ItemStack, BrewingRegistry)} moves them over.
+ */
+@UtilityClass
+public class ItemStamp {
+    private final String LEGACY_TYPE_TAG = "BrewingItemType";
+
+    /**
+     * @return a stamped copy of the item
+     */
+    public ItemStack stamp(ItemStack itemStack, int id, long catalogVersion, ItemKey key) {
+        ItemStack stamped = itemStack.clone();
+        ItemMeta itemMeta = stamped.getItemMeta();
+        if (itemMeta == null) return stamped;
+        write(itemMeta.getPersistentDataContainer(), id, catalogVersion, key);
+        stamped.setItemMeta(itemMeta);
+        return stamped;
+    }
+
+    /**
+     * @return a new brewing barrel item
+     */
+    public ItemStack barrel() {
+        ItemStack barrel = new ItemStack(Material.BARREL);
+        ItemMeta itemMeta = barrel.getItemMeta();
+        //noinspection ConstantConditions
+        itemMeta.getPersistentDataContainer().set(Keys.BARREL, PersistentDataType.BYTE, (byte) 1);
+        barrel.setItemMeta(itemMeta);
+        return barrel;
+    }
+
+    /**
+     * Checks the material first, only barrels carrying a meta have it read.
+     */
+    public boolean isBarrel(@Nullable ItemStack itemStack) {
+        // a plain barrel has no meta, the stamp and the nbt tag of older versions both live in one
+        if (itemStack == null || itemStack.getType() != Material.BARREL || !itemStack.hasItemMeta()) return false;
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        if (itemMeta == null) return false;
+        PersistentDataContainer container = itemMeta.getPersistentDataContainer();
+        if (container.has(Keys.BARREL, PersistentDataType.BYTE)) return true;
+        if (!container.isEmpty()) return false;
+
+        // barrel items of older versions carry nothing but the nbt tag, they are stamped on join
+        NBTItem nbtItem = new NBTItem(itemStack);
+        return nbtItem.hasKey(Tag.BARREL.key()) && Tag.BARREL.value().equals(nbtItem.getObject(Tag.BARREL.key(), Object.class));
+    }
+
+    /**
+     * Moves the nbt tags of older versions to a stamp and stamps again items whose catalog
+     * version is outdated, in place.
+     *
+     * @return true if the item was changed
+     */
+    public boolean migrate(@Nullable ItemStack itemStack, BrewingRegistry registry) {
+        if (itemStack == null || itemStack.getType().isAir()) return false;
+
+        if (itemStack.getType() == Material.BARREL) {
+            NBTItem nbtItem = new NBTItem(itemStack);
+            if (!nbtItem.hasKey(Tag.BARREL.key())) return false;
+            nbtItem.removeKey(Tag.BARREL.key());
+            ItemMeta itemMeta = nbtItem.getItem().getItemMeta();
+            //noinspection ConstantConditions
+            itemMeta.getPersistentDataContainer().set(Keys.BARREL, PersistentDataType.BYTE, (byte) 1);
+            itemStack.setItemMeta(itemMeta);
+            return true;
+        }
+
+        int id = registry.itemResolver().resolve(itemStack);
+        if (id < 0) return false;
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        //noinspection ConstantConditions
+        long[] stamp = itemMeta.getPersistentDataContainer().get(Keys.STAMP, PersistentDataType.LONG_ARRAY);
+        if (stamp != null && stamp.length == 2 && stamp[0] == registry.catalogVersion()) return false;
+
+        if (stamp == null) {
+            NBTItem nbtItem = new NBTItem(itemStack);
+            nbtItem.removeKey(LEGACY_TYPE_TAG);
+            itemMeta = nbtItem.getItem().getItemMeta();
+        }
+        //noinspection ConstantConditions
+        write(itemMeta.getPersistentDataContainer(), id, registry.catalogVersion(), registry.itemKey(id));
+        itemStack.setItemMeta(itemMeta);
+        return true;
+    }
+
+    /**
+     * @return a version for the id - key assignment, equal lists give equal versions across restarts
+     */
+    long catalogVersion(List<ItemKey> itemKeys) {
+        // 64 bit fnv-1a over every key in id order
+        long hash = 0xcbf29ce484222325L;
+        for (ItemKey key : itemKeys) {
+            String text = key.toString();
+            for (int i = 0; i < text.length(); i++) {
+                hash ^= text.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= '\n';
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void write(PersistentDataContainer data, int id, long catalogVersion, ItemKey key) {
+        data.set(Keys.STAMP, PersistentDataType.LONG_ARRAY, new long[]{catalogVersion, id});
+        data.set(Keys.KEY, PersistentDataType.STRING, key.toString());
+    }
+
+    /**
+     * The keys need the plugin, they are created on first use so the registry classes load without it.
+     */
+    public static final class Keys {
+        public static final NamespacedKey STAMP = new NamespacedKey(Brewing.instance(), "stamp");
+        public static final NamespacedKey KEY = new NamespacedKey(Brewing.instance(), "key");
+        public static final NamespacedKey BARREL = new NamespacedKey(Brewing.instance(), "barrel");
+
+        private Keys() {
+        }
+    }
+}
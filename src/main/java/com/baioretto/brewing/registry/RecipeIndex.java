@@ -0,0 +1,203 @@
+package com.baioretto.brewing.registry;
+
+import com.baioretto.brewing.bean.RecipeProperties;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Inverted index from interned item ids to the recipes using them, built with every {@link BrewingRegistry}.
+ *
+ * <p><pre>
+ *  item id  -----  recipe numbers using it as substrate, yeast, extra or container
+ *  item id  -----  recipe numbers requiring it as substrate or container, with the count needed
+ *  </pre>
+ * Yeasts and extras only amplify the yield, so a recipe is satisfied once each of its substrates
+ * and containers is present as often as the recipe lists it. Both queries walk the postings of
+ * the given items only and never the whole catalog.
+ */
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RecipeIndex {
+    public static final RecipeIndex EMPTY = of(List.of(), 0);
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    /**
+     * recipe number - recipe, in catalog order
+     */
+    RecipeProperties[] recipes;
+
+    /**
+     * item id - ascending recipe numbers using the item in any role
+     */
+    int[][] containing;
+
+    /**
+     * item id - ascending recipe numbers requiring the item
+     */
+    int[][] requiring;
+
+    /**
+     * item id - count of the item each recipe in {@link #requiring} needs, in the same order
+     */
+    int[][] requiringCount;
+
+    /**
+     * recipe number - count of its distinct required items
+     */
+    int[] required;
+
+    /**
+     * @return every recipe using the item as substrate, yeast, extra or container
+     */
+    public @NotNull List<RecipeProperties> recipesContaining(int item) {
+        return this.resolve(postings(containing, item));
+    }
+
+    /**
+     * @param items a multiset of interned item ids, repeated ids and unknown ids are allowed
+     * @return every recipe whose substrates and containers are all present in the items, in catalog order
+     */
+    public @NotNull List<RecipeProperties> recipesSatisfiedBy(int[] items) {
+        int[] amounts = new int[items.length];
+        Arrays.fill(amounts, 1);
+        return this.recipesSatisfiedBy(items, amounts);
+    }
+
+    /**
+     * @param items   interned item ids, repeated ids and unknown ids are allowed, such as the slots of an inventory
+     * @param amounts how many of the item at the same index there are
+     * @return every recipe whose substrates and containers are all present often enough, in catalog order
+     */
+    public @NotNull List<RecipeProperties> recipesSatisfiedBy(int[] items, int[] amounts) {
+        if (items.length == 0) return Collections.emptyList();
+
+        // id in the high half, amount in the low half, sorted so equal ids form one run
+        long[] packed = new long[items.length];
+        int count = 0;
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] < 0 || items[i] >= requiring.length || amounts[i] <= 0) continue;
+            packed[count++] = (long) items[i] << 32 | amounts[i];
+        }
+        Arrays.sort(packed, 0, count);
+
+        // one entry per requirement met, a recipe is satisfied once it shows up for each required item
+        int[] touched = NO_POSTINGS;
+        int touchedCount = 0;
+        for (int i = 0; i < count; ) {
+            int item = (int) (packed[i] >>> 32);
+            long total = 0;
+            while (i < count && (int) (packed[i] >>> 32) == item) total += (int) packed[i++];
+
+            int[] postings = postings(requiring, item);
+            for (int k = 0; k < postings.length; k++) {
+                if (total < requiringCount[item][k]) continue;
+                if (touchedCount == touched.length) touched = Arrays.copyOf(touched, Math.max(8, touchedCount * 2));
+                touched[touchedCount++] = postings[k];
+            }
+        }
+        if (touchedCount == 0) return Collections.emptyList();
+
+        // ascending recipe numbers are catalog order, equal numbers form one run
+        Arrays.sort(touched, 0, touchedCount);
+        List<RecipeProperties> result = new ArrayList<>();
+        for (int i = 0; i < touchedCount; ) {
+            int recipe = touched[i];
+            int hits = 0;
+            while (i < touchedCount && touched[i] == recipe) {
+                hits++;
+                i++;
+            }
+            if (hits == required[recipe]) result.add(recipes[recipe]);
+        }
+        return result;
+    }
+
+    /**
+     * @return true if some recipe uses the item in any role
+     */
+    public boolean isIngredient(int item) {
+        return postings(containing, item).length > 0;
+    }
+
+    public int size() {
+        return recipes.length;
+    }
+
+    private List<RecipeProperties> resolve(int[] postings) {
+        if (postings.length == 0) return Collections.emptyList();
+        List<RecipeProperties> result = new ArrayList<>(postings.length);
+        for (int recipe : postings) {
+            result.add(recipes[recipe]);
+        }
+        return result;
+    }
+
+    private static int[] postings(int[][] index, int item) {
+        if (item < 0 || item >= index.length || index[item] == null) return NO_POSTINGS;
+        return index[item];
+    }
+
+    /**
+     * @param itemCount number of interned item ids
+     */
+    static RecipeIndex of(Collection<RecipeProperties> recipes, int itemCount) {
+        RecipeProperties[] recipeArray = recipes.toArray(new RecipeProperties[0]);
+        int[] containingSize = new int[itemCount];
+        int[] requiringSize = new int[itemCount];
+        int[][] distinctItems = new int[recipeArray.length][];
+        int[] required = new int[recipeArray.length];
+
+        // first pass counts the postings of every item, the second one fills them in recipe order
+        for (int recipe = 0; recipe < recipeArray.length; recipe++) {
+            RecipeProperties properties = recipeArray[recipe];
+            int[] requiredItems = distinct(properties.substrates(), properties.containers());
+            required[recipe] = requiredItems.length;
+            distinctItems[recipe] = distinct(requiredItems, properties.yeasts(), properties.extras());
+            for (int item : requiredItems) requiringSize[item]++;
+            for (int item : distinctItems[recipe]) containingSize[item]++;
+        }
+
+        int[][] containing = allocate(containingSize);
+        int[][] requiring = allocate(requiringSize);
+        int[][] requiringCount = allocate(requiringSize);
+        Arrays.fill(containingSize, 0);
+        Arrays.fill(requiringSize, 0);
+        for (int recipe = 0; recipe < recipeArray.length; recipe++) {
+            for (int item : distinctItems[recipe]) containing[item][containingSize[item]++] = recipe;
+            int[] requiredItems = distinct(recipeArray[recipe].substrates(), recipeArray[recipe].containers());
+            for (int item : requiredItems) {
+                requiringCount[item][requiringSize[item]] = occurrences(item, recipeArray[recipe].substrates(), recipeArray[recipe].containers());
+                requiring[item][requiringSize[item]++] = recipe;
+            }
+        }
+
+        return new RecipeIndex(recipeArray, containing, requiring, requiringCount, required);
+    }
+
+    private static int[][] allocate(int[] sizes) {
+        int[][] postings = new int[sizes.length][];
+        for (int item = 0; item < sizes.length; item++) {
+            if (sizes[item] > 0) postings[item] = new int[sizes[item]];
+        }
+        return postings;
+    }
+
+    private static int occurrences(int item, int[]... ids) {
+        int count = 0;
+        for (int[] array : ids) {
+            for (int id : array) {
+                if (id == item) count++;
+            }
+        }
+        return count;
+    }
+
+    private static int[] distinct(int[]... ids) {
+        return Arrays.stream(ids).flatMapToInt(Arrays::stream).distinct().toArray();
+    }
+}
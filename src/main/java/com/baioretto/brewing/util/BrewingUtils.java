@@ -1,12 +1,14 @@
 package com.baioretto.brewing.util;
 
 import com.baioretto.brewing.Brewing;
-import com.baioretto.brewing.enumerate.Tag;
+import com.baioretto.brewing.barrel.BarrelIndex;
+import com.baioretto.brewing.barrel.BarrelSessions;
+import com.baioretto.brewing.barrel.BrewingEngine;
+import com.baioretto.brewing.loader.ConfigWatcher;
 import com.baioretto.brewing.loader.ConfigurationLoader;
-import de.tr7zw.nbtapi.NBTBlock;
 import lombok.experimental.UtilityClass;
 import me.mattstudios.mf.base.CommandManager;
-import org.bukkit.Material;
+import org.bukkit.Bukkit;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -44,20 +46,45 @@ public class BrewingUtils {
     public void load(boolean async) {
         if (async) {
             CompletableFuture.runAsync(ConfigurationLoader.getInstance()::load)
-                    .thenRunAsync(Register::registerListeners);
+                    .thenRunAsync(Register::registerListeners)
+                    .thenRun(() -> Bukkit.getScheduler().runTask(Brewing.instance(), BrewingUtils::indexLoadedChunks))
+                    .thenRun(ConfigWatcher.getInstance()::start);
             Register.registerParameter();
             Register.registerCommands();
         } else {
             ConfigurationLoader.getInstance().load();
             Register.registerCommands();
             Register.registerListeners();
+            indexLoadedChunks();
+            ConfigWatcher.getInstance().start();
         }
     }
 
-    public boolean notBrewingBarrel(Block craftBlock) {
-        if (craftBlock == null || craftBlock.getType().equals(Material.AIR)) return true;
+    // chunks loaded before the chunk listener was registered
+    private void indexLoadedChunks() {
+        BarrelIndex.getInstance().indexLoadedChunks();
+        BrewingEngine.getInstance().loadLoadedChunks();
+    }
+
+    /**
+     * Rebuilds the registry off the main thread, the new snapshot is published in one swap once it is complete.
+     */
+    public CompletableFuture<Void> reload() {
+        return CompletableFuture.runAsync(ConfigurationLoader.getInstance()::load)
+                .thenRun(ConfigWatcher.getInstance()::start);
+    }
 
-        NBTBlock block = new NBTBlock(craftBlock);
-        return !(block.getData().hasKey(Tag.BARREL.key()) && block.getData().getObject(Tag.BARREL.key(), Object.class).equals(Tag.BARREL.value()));
+    /**
+     * Called on the main thread after a new registry was published: drops the shared guis and
+     * schedules the brew completions again, recipe cycles may have changed. Guis kept per player
+     * are dropped by {@link com.baioretto.brewing.gui.GuiSessions} once their version is outdated.
+     */
+    public void onRegistryPublished() {
+        BarrelSessions.getInstance().forgetGuis();
+        BrewingEngine.getInstance().reschedule();
+    }
+
+    public boolean notBrewingBarrel(Block craftBlock) {
+        return !BarrelIndex.getInstance().isBarrel(craftBlock);
     }
 }
\ No newline at end of file
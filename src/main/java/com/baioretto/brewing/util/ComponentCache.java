@@ -0,0 +1,86 @@
+package com.baioretto.brewing.util;
+
+import com.baioretto.brewing.bean.ItemProperties;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Rendered components of {@link ItemProperties.Content}, shared by every item and recipe of one load.
+ *
+ * <p>Components are immutable, so identical lines such as a tier label used by hundreds of items
+ * end up as one instance. The cache is cleared when a full load starts.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ComponentCache {
+    private final Map<Key, Component> components = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param kind    what the content is rendered as, the same text renders differently as a name or a tier
+     * @param renderer called once per distinct content and kind
+     */
+    Component get(ItemProperties.Content content, Kind kind, Function<ItemProperties.Content, Component> renderer) {
+        Key key = new Key(content.text(), packColor(content.color()), kind);
+        Component component = components.get(key);
+        if (component != null) {
+            hits.increment();
+            return component;
+        }
+
+        misses.increment();
+        return components.computeIfAbsent(key, k -> renderer.apply(content));
+    }
+
+    public void clear() {
+        components.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    public int size() {
+        return components.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return 0xRRGGBB, -1 without a color
+     */
+    private static int packColor(ArrayList<Integer> color) {
+        if (color == null) return -1;
+        return (color.get(0) & 0xFF) << 16 | (color.get(1) & 0xFF) << 8 | color.get(2) & 0xFF;
+    }
+
+    enum Kind {
+        DISPLAY,
+        TIER
+    }
+
+    private record Key(String text, int color, Kind kind) {
+    }
+
+    // region get instance
+    private static class CacheInstance {
+        static final ComponentCache instance = new ComponentCache();
+    }
+
+    public static ComponentCache getInstance() {
+        return CacheInstance.instance;
+    }
+    // endregion
+}
@@ -0,0 +1,146 @@
+package com.baioretto.brewing.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open addressing set of primitive longs, no boxing on lookup.
+ *
+ * <p>Linear probing over a power of two table, 0 marks a free slot and is tracked on its own.
+ * Removal shifts the following entries back, so the table never holds tombstones. Not thread safe.
+ */
+public class LongHashSet {
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0L) return containsZero;
+
+        int slot = mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != 0L) {
+            if (current == key) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the key was not present
+     */
+    public boolean add(long key) {
+        if (key == 0L) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != 0L) {
+            if (current == key) return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size > keys.length * LOAD_FACTOR) this.rehash(keys.length << 1);
+        return true;
+    }
+
+    /**
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        if (key == 0L) {
+            if (!containsZero) return false;
+            containsZero = false;
+            size--;
+            return true;
+        }
+
+        int slot = mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != 0L) {
+            if (current == key) {
+                this.shiftKeys(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (containsZero) action.accept(0L);
+        for (long key : keys) {
+            if (key != 0L) action.accept(key);
+        }
+    }
+
+    // move the entries after a removed slot back so every probe chain stays unbroken
+    private void shiftKeys(int slot) {
+        int last;
+        while (true) {
+            last = slot;
+            slot = (slot + 1) & mask;
+            long current;
+            while (true) {
+                if ((current = keys[slot]) == 0L) {
+                    keys[last] = 0L;
+                    return;
+                }
+                int home = mix(current) & mask;
+                // the entry may move back only if its home slot is not between last and slot
+                if (last <= slot ? last >= home || home > slot : last >= home && home > slot) break;
+                slot = (slot + 1) & mask;
+            }
+            keys[last] = current;
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        keys = new long[capacity];
+        mask = capacity - 1;
+        for (long key : old) {
+            if (key == 0L) continue;
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0L) slot = (slot + 1) & mask;
+            keys[slot] = key;
+        }
+    }
+
+    static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
+    }
+}
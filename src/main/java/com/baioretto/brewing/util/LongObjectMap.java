@@ -0,0 +1,167 @@
+package com.baioretto.brewing.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from primitive longs to objects, same layout as {@link LongHashSet}.
+ *
+ * <p>Null values are not allowed, a null result always means the key is absent. Not thread safe.
+ */
+public class LongObjectMap<V> {
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private long[] keys;
+    private V[] values;
+    private int mask;
+    private int size;
+    private V zeroValue;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int expected) {
+        this.allocate(Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1);
+    }
+
+    public @Nullable V get(long key) {
+        if (key == 0L) return zeroValue;
+
+        int slot = LongHashSet.mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != 0L) {
+            if (current == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return the previous value, null if there was none
+     */
+    public @Nullable V put(long key, V value) {
+        if (value == null) throw new NullPointerException("value");
+
+        if (key == 0L) {
+            V previous = zeroValue;
+            zeroValue = value;
+            if (previous == null) size++;
+            return previous;
+        }
+
+        int slot = LongHashSet.mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != 0L) {
+            if (current == key) {
+                V previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) this.rehash(keys.length << 1);
+        return null;
+    }
+
+    /**
+     * @return the removed value, null if the key was absent
+     */
+    public @Nullable V remove(long key) {
+        if (key == 0L) {
+            V previous = zeroValue;
+            zeroValue = null;
+            if (previous != null) size--;
+            return previous;
+        }
+
+        int slot = LongHashSet.mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != 0L) {
+            if (current == key) {
+                V previous = values[slot];
+                this.shiftKeys(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * Do not change the map from the action, collect the keys and remove them afterwards.
+     */
+    public void forEach(EntryConsumer<V> action) {
+        if (zeroValue != null) action.accept(0L, zeroValue);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0L) action.accept(keys[slot], values[slot]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    // see LongHashSet#shiftKeys
+    private void shiftKeys(int slot) {
+        int last;
+        while (true) {
+            last = slot;
+            slot = (slot + 1) & mask;
+            long current;
+            while (true) {
+                if ((current = keys[slot]) == 0L) {
+                    keys[last] = 0L;
+                    values[last] = null;
+                    return;
+                }
+                int home = LongHashSet.mix(current) & mask;
+                if (last <= slot ? last >= home || home > slot : last >= home && home > slot) break;
+                slot = (slot + 1) & mask;
+            }
+            keys[last] = current;
+            values[last] = values[slot];
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        this.allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0L) continue;
+            int slot = LongHashSet.mix(key) & mask;
+            while (keys[slot] != 0L) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = (V[]) new Object[capacity];
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,159 @@
+package com.baioretto.brewing.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with a resolution of one tick.
+ *
+ * <p>Four levels of 256, 64, 64 and 64 slots cover about 2^26 ticks, later deadlines wait in the
+ * last level and are placed again every time it turns. Every timeout is a node of a doubly linked
+ * slot list, so scheduling and cancelling are O(1). {@link #advance(long, Consumer)} touches the
+ * one slot of the first level that expires, a slot of a higher level is only cascaded down when
+ * the level below wraps. Not thread safe.
+ */
+public class TimingWheel<T> {
+    private static final int[] BITS = {8, 6, 6, 6};
+    private static final int[] SHIFT = {0, 8, 14, 20};
+    private static final long MAX_DELAY = (1L << 26) - 1L;
+
+    private final Timeout<T>[][] slots;
+    private long now;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long now) {
+        this.now = now;
+        slots = new Timeout[BITS.length][];
+        for (int level = 0; level < BITS.length; level++) {
+            slots[level] = new Timeout[1 << BITS[level]];
+            for (int slot = 0; slot < slots[level].length; slot++) slots[level][slot] = new Timeout<>(this, 0L, null);
+        }
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param deadline tick to expire at, a deadline that already passed expires on the next tick
+     */
+    public Timeout<T> schedule(long deadline, T value) {
+        Timeout<T> timeout = new Timeout<>(this, Math.max(deadline, now + 1L), value);
+        this.place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel to the tick, handing every timeout that expires on the way to the action.
+     * The action may schedule and cancel timeouts.
+     */
+    public void advance(long tick, Consumer<T> action) {
+        while (now < tick) {
+            now++;
+            // cascade the higher levels whose turn starts now, top down
+            for (int level = BITS.length - 1; level > 0; level--) {
+                if ((now & ((1L << SHIFT[level]) - 1L)) == 0L) this.cascade(level, index(level, now));
+            }
+
+            Timeout<T> head = slots[0][index(0, now)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                timeout.unlink();
+                size--;
+                action.accept(timeout.value);
+            }
+        }
+    }
+
+    public void clear() {
+        for (Timeout<T>[] level : slots) {
+            for (Timeout<T> head : level) {
+                while (head.next != head) head.next.unlink();
+            }
+        }
+        size = 0;
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delay = timeout.deadline - now;
+        // beyond the last level, park it in the farthest slot and place it again once that slot turns
+        long deadline = delay > MAX_DELAY ? now + MAX_DELAY : timeout.deadline;
+
+        int level = 0;
+        while (level < BITS.length - 1 && delay >= 1L << SHIFT[level + 1]) level++;
+        timeout.link(slots[level][index(level, deadline)]);
+    }
+
+    private void cascade(int level, int slot) {
+        Timeout<T> head = slots[level][slot];
+        Timeout<T> timeout = head.next;
+        // detach the whole list first, placing may put a timeout back into this very slot
+        head.next = head;
+        head.prev = head;
+        while (timeout != head) {
+            Timeout<T> next = timeout.next;
+            this.place(timeout);
+            timeout = next;
+        }
+    }
+
+    private static int index(int level, long tick) {
+        return (int) (tick >>> SHIFT[level]) & ((1 << BITS[level]) - 1);
+    }
+
+    /**
+     * A scheduled value, linked into the slot it expires in.
+     */
+    public static final class Timeout<T> {
+        private final TimingWheel<T> wheel;
+        private final long deadline;
+        private final @Nullable T value;
+        private Timeout<T> prev = this;
+        private Timeout<T> next = this;
+
+        private Timeout(TimingWheel<T> wheel, long deadline, @Nullable T value) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.value = value;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public boolean isPending() {
+            return next != this;
+        }
+
+        /**
+         * @return false if the timeout already expired or was cancelled
+         */
+        public boolean cancel() {
+            if (!this.isPending()) return false;
+            this.unlink();
+            wheel.size--;
+            return true;
+        }
+
+        private void link(Timeout<T> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
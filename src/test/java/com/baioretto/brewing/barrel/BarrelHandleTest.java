@@ -0,0 +1,101 @@
+package com.baioretto.brewing.barrel;
+
+import org.bukkit.Material;
+import org.bukkit.block.Barrel;
+import org.bukkit.block.Block;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Counts the block states taken over open and close cycles of a mocked barrel, through handles and
+ * through the {@link Block#getState()} calls they replaced.
+ *
+ * <p>One cycle is a session from open to close followed by a completion that reads the inventory
+ * and marks the barrel changed. The spigot api has no {@code getState(boolean)}, so here every
+ * handle takes the copy path.
+ */
+class BarrelHandleTest {
+    private static final int CYCLES = 1000;
+
+    @Test
+    void takesOneStatePerHandleInsteadOfOnePerCall() {
+        Block before = barrel();
+        for (int i = 0; i < CYCLES; i++) {
+            // the session kept the state it opened the lid with
+            Barrel session = (Barrel) before.getState();
+            session.open();
+            for (int read = 0; read < 8; read++) session.getInventory();
+            session.close();
+            // the completion copied once to read the inventory and once more to mark it changed
+            ((Barrel) before.getState()).getInventory();
+            before.getState().update(true, false);
+        }
+
+        Block after = barrel();
+        long liveStates = BarrelHandle.liveStates();
+        long snapshots = BarrelHandle.snapshots();
+        for (int i = 0; i < CYCLES; i++) {
+            BarrelHandle session = BarrelHandle.of(after);
+            assertNotNull(session);
+            session.open();
+            for (int read = 0; read < 8; read++) session.inventory();
+            session.close();
+
+            BarrelHandle completion = BarrelHandle.of(after);
+            assertNotNull(completion);
+            completion.inventory();
+            completion.markChanged();
+        }
+        liveStates = BarrelHandle.liveStates() - liveStates;
+        snapshots = BarrelHandle.snapshots() - snapshots;
+
+        // every handle took exactly one state, the old path took three per cycle
+        assertEquals(0L, liveStates);
+        assertEquals(2L * CYCLES, snapshots);
+        verify(before, times(3 * CYCLES)).getState();
+        verify(after, times((int) snapshots)).getState();
+    }
+
+    @Test
+    void neverWritesACopyBack() {
+        Block block = barrel();
+        Barrel barrel = (Barrel) block.getState();
+        Inventory inventory = barrel.getInventory();
+        ItemStack first = mock(ItemStack.class);
+        when(inventory.getItem(0)).thenReturn(first);
+
+        BarrelHandle handle = BarrelHandle.of(block);
+        assertNotNull(handle);
+        assertFalse(handle.isLive());
+        handle.markChanged();
+
+        // a copy written back would undo what hoppers moved since, the slot is set to what the world holds
+        verify(barrel, never()).update(anyBoolean(), anyBoolean());
+        verify(inventory).setItem(0, first);
+    }
+
+    @Test
+    void takesNoStateOfAnotherBlock() {
+        Block block = mock(Block.class);
+        when(block.getType()).thenReturn(Material.CHEST);
+
+        long states = BarrelHandle.liveStates() + BarrelHandle.snapshots();
+        assertNull(BarrelHandle.of(block));
+        assertEquals(states, BarrelHandle.liveStates() + BarrelHandle.snapshots());
+        verify(block, never()).getState();
+    }
+
+    private static Block barrel() {
+        Barrel barrel = mock(Barrel.class);
+        when(barrel.getInventory()).thenReturn(mock(Inventory.class));
+        Block block = mock(Block.class);
+        when(block.getType()).thenReturn(Material.BARREL);
+        when(block.getState()).thenReturn(barrel);
+        return block;
+    }
+}
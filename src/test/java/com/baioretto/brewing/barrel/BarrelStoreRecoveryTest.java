@@ -0,0 +1,207 @@
+package com.baioretto.brewing.barrel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays journals cut or damaged the way a crash mid-write leaves them.
+ */
+class BarrelStoreRecoveryTest {
+    private static final UUID WORLD = new UUID(0x1234L, 0x5678L);
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void replaysEveryRecordOfAnIntactJournal() throws IOException {
+        List<BarrelStore.Change> changes = changes(32, new Random(1L));
+        File journal = folder.resolve("barrels.journal").toFile();
+        BarrelStore.writeJournal(journal, changes);
+        long[] ends = ends(changes);
+
+        List<Replayed> replayed = new ArrayList<>();
+        long valid = BarrelStore.replay(journal, (change, offset) -> replayed.add(new Replayed(change, offset)));
+
+        assertEquals(ends[changes.size()], valid);
+        assertEquals(valid, journal.length());
+        assertReplayed(changes, ends, replayed, changes.size());
+    }
+
+    @Test
+    void truncatesATornTailAtEveryOffset() throws IOException {
+        List<BarrelStore.Change> changes = changes(24, new Random(2L));
+        File source = folder.resolve("source.journal").toFile();
+        BarrelStore.writeJournal(source, changes);
+        long[] ends = ends(changes);
+
+        File journal = folder.resolve("barrels.journal").toFile();
+        for (long cut = BarrelStore.HEADER_SIZE; cut <= source.length(); cut++) {
+            Files.copy(source.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            try (FileChannel channel = FileChannel.open(journal.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(cut);
+            }
+
+            int complete = complete(ends, cut);
+            List<Replayed> replayed = new ArrayList<>();
+            long valid = BarrelStore.replay(journal, (change, offset) -> replayed.add(new Replayed(change, offset)));
+
+            assertEquals(ends[complete], valid, "cut at " + cut);
+            assertEquals(valid, journal.length(), "cut at " + cut);
+            assertReplayed(changes, ends, replayed, complete);
+        }
+    }
+
+    @Test
+    void stopsAtTheFirstCorruptedRecord() throws IOException {
+        Random random = new Random(3L);
+        List<BarrelStore.Change> changes = changes(24, random);
+        File source = folder.resolve("source.journal").toFile();
+        BarrelStore.writeJournal(source, changes);
+        long[] ends = ends(changes);
+        byte[] bytes = Files.readAllBytes(source.toPath());
+
+        File journal = folder.resolve("barrels.journal").toFile();
+        for (int i = 0; i < 200; i++) {
+            int position = BarrelStore.HEADER_SIZE + random.nextInt(bytes.length - BarrelStore.HEADER_SIZE);
+            byte[] damaged = bytes.clone();
+            damaged[position] ^= (byte) (1 + random.nextInt(255));
+            Files.write(journal.toPath(), damaged);
+
+            // the damaged record and everything after it is dropped
+            int intact = complete(ends, position);
+            List<Replayed> replayed = new ArrayList<>();
+            long valid = BarrelStore.replay(journal, (change, offset) -> replayed.add(new Replayed(change, offset)));
+
+            assertEquals(ends[intact], valid, "byte " + position);
+            assertEquals(valid, journal.length(), "byte " + position);
+            assertReplayed(changes, ends, replayed, intact);
+        }
+    }
+
+    @Test
+    void leavesAnUnknownHeaderAlone() throws IOException {
+        File journal = folder.resolve("barrels.journal").toFile();
+        Files.write(journal.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        assertEquals(-1L, BarrelStore.replay(journal, (change, offset) -> fail("nothing to replay")));
+        assertEquals(9L, journal.length());
+    }
+
+    @Test
+    void replaysAPrefixAfterTheWriterIsKilled() throws Exception {
+        File journal = folder.resolve("barrels.journal").toFile();
+        BarrelStore.writeJournal(journal, List.of());
+
+        for (int round = 0; round < 3; round++) {
+            long before = journal.length();
+            Process writer = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"), Writer.class.getName(), journal.getAbsolutePath())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                // kill it somewhere in the middle of its writes
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+                while (journal.length() < before + (64 << 10) && writer.isAlive() && System.nanoTime() < deadline) {
+                    Thread.sleep(5L);
+                }
+            } finally {
+                writer.destroyForcibly().waitFor();
+            }
+
+            // positions were written in order, so what survives has to be 0 to n - 1 of every round
+            List<Long> positions = new ArrayList<>();
+            long valid = BarrelStore.replay(journal, (change, offset) -> positions.add(change.position));
+            assertTrue(valid >= before, "round " + round);
+            assertEquals(valid, journal.length(), "round " + round);
+
+            long expected = 0L;
+            for (long position : positions) {
+                expected = position == 0L ? 1L : expected + 1L;
+                assertEquals(expected - 1L, position, "round " + round);
+            }
+        }
+    }
+
+    /**
+     * Appends changes to the journal until it is killed, run in a child jvm.
+     */
+    public static final class Writer {
+        public static void main(String[] args) throws IOException {
+            Random random = new Random();
+            try (FileOutputStream stream = new FileOutputStream(args[0], true);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                for (long position = 0L; ; position++) {
+                    BarrelStore.writeRecord(out, change(position, random).encode());
+                }
+            }
+        }
+    }
+
+    // region helpers
+    private static List<BarrelStore.Change> changes(int count, Random random) {
+        List<BarrelStore.Change> changes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            changes.add(random.nextInt(4) == 0 ? new BarrelStore.Change(WORLD, random.nextLong(), null) : change(random.nextLong(), random));
+        }
+        return changes;
+    }
+
+    private static BarrelStore.Change change(long position, Random random) {
+        List<String> ingredients = new ArrayList<>();
+        for (int i = random.nextInt(6); i >= 0; i--) ingredients.add("brewing:ingredient_" + random.nextInt(100));
+        return new BarrelStore.Change(WORLD, position,
+                new BarrelState("recipe_" + random.nextInt(10), random.nextLong(), random.nextLong(), random.nextDouble(), ingredients));
+    }
+
+    /**
+     * @return offset at which every record ends, index 0 is the end of the header
+     */
+    private static long[] ends(List<BarrelStore.Change> changes) throws IOException {
+        long[] ends = new long[changes.size() + 1];
+        ends[0] = BarrelStore.HEADER_SIZE;
+        for (int i = 0; i < changes.size(); i++) {
+            ends[i + 1] = ends[i] + BarrelStore.RECORD_HEADER_SIZE + changes.get(i).encode().length;
+        }
+        return ends;
+    }
+
+    /**
+     * @return count of records that end at or before the offset
+     */
+    private static int complete(long[] ends, long offset) {
+        int complete = 0;
+        while (complete + 1 < ends.length && ends[complete + 1] <= offset) complete++;
+        return complete;
+    }
+
+    private static void assertReplayed(List<BarrelStore.Change> changes, long[] ends, List<Replayed> replayed, int count) {
+        assertEquals(count, replayed.size());
+        for (int i = 0; i < count; i++) {
+            BarrelStore.Change expected = changes.get(i);
+            Replayed actual = replayed.get(i);
+            assertEquals(ends[i], actual.offset());
+            assertEquals(expected.world, actual.change().world);
+            assertEquals(expected.position, actual.change().position);
+            assertEquals(expected.state, actual.change().state);
+        }
+    }
+
+    private record Replayed(BarrelStore.Change change, long offset) {
+    }
+    // endregion
+}
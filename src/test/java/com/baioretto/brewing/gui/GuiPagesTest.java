@@ -0,0 +1,185 @@
+package com.baioretto.brewing.gui;
+
+import dev.triumphteam.gui.guis.BaseGui;
+import dev.triumphteam.gui.guis.GuiItem;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Counts the slots written per page flip of {@link GuiPages} against a replica of the populatePage
+ * path it replaced.
+ *
+ * <p>Both sides write to the same kind of inventory, a mock that keeps its contents in an array
+ * and counts the slots written, a clear counting every slot.
+ */
+class GuiPagesTest {
+    private static final int ROWS = 6;
+    private static final int FREE = 45;
+    private static final int ITEMS = FREE * 10 + 7;
+
+    private final List<GuiItem> items = new ArrayList<>();
+    // the bottom row holds the page buttons and the tier icons
+    private final Map<Integer, GuiItem> fixed = new LinkedHashMap<>();
+    private final Slots pagesSlots = new Slots();
+    private final Slots replicaSlots = new Slots();
+    private GuiPages pages;
+    private PopulatePage replica;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ITEMS; i++) items.add(item());
+        for (int slot = FREE; slot < ROWS * 9; slot++) fixed.put(slot, item());
+        pages = new GuiPages(gui(pagesSlots), IntStream.range(0, FREE).toArray());
+        pages.items(items);
+        replica = new PopulatePage(replicaSlots, fixed, items, FREE);
+    }
+
+    @Test
+    void showsWhatPopulatePageShowed() {
+        for (int page = 0; page < pages.pages(); page++) {
+            this.flip(page);
+            replica.page(page);
+            assertArrayEquals(replicaSlots.contents, pagesSlots.contents, "page " + page);
+        }
+    }
+
+    @Test
+    void writesTheFreeSlotsOncePerFlip() {
+        this.flip(0);
+        int last = pages.pages() - 1;
+        // forward to the short last page and back, every flip lands on another page
+        List<Integer> order = new ArrayList<>();
+        for (int page = 1; page <= last; page++) order.add(page);
+        for (int page = last - 1; page >= 0; page--) order.add(page);
+
+        for (int page : order) {
+            long writes = pagesSlots.writes;
+            long slotUpdates = GuiPages.slotUpdates();
+            this.flip(page);
+            assertEquals(FREE, pagesSlots.writes - writes, "GuiPages to page " + page);
+            assertEquals(FREE, GuiPages.slotUpdates() - slotUpdates, "slot updates to page " + page);
+
+            writes = replicaSlots.writes;
+            replica.page(page);
+            int shown = Math.min(FREE, ITEMS - page * FREE);
+            assertEquals(ROWS * 9 + fixed.size() + shown, replicaSlots.writes - writes, "populatePage to page " + page);
+        }
+    }
+
+    @Test
+    void writesNothingForThePageShown() {
+        this.flip(3);
+        long writes = pagesSlots.writes;
+        long slotUpdates = GuiPages.slotUpdates();
+        this.flip(3);
+        assertEquals(0L, pagesSlots.writes - writes);
+        assertEquals(0L, GuiPages.slotUpdates() - slotUpdates);
+
+        // populatePage writes the whole inventory again
+        replica.page(3);
+        writes = replicaSlots.writes;
+        replica.page(3);
+        assertEquals(ROWS * 9 + fixed.size() + FREE, replicaSlots.writes - writes);
+    }
+
+    // a flip as GuiBase does it, the page and then the buttons, which keep their stacks here
+    private void flip(int page) {
+        pages.page(page);
+        fixed.forEach((slot, item) -> pages.fixed(slot, item.getItemStack()));
+    }
+
+    // region mocks
+    private static GuiItem item() {
+        ItemStack itemStack = mock(ItemStack.class, withSettings().stubOnly());
+        GuiItem item = mock(GuiItem.class, withSettings().stubOnly());
+        when(item.getItemStack()).thenReturn(itemStack);
+        return item;
+    }
+
+    private static BaseGui gui(Slots slots) {
+        BaseGui gui = mock(BaseGui.class, withSettings().stubOnly());
+        when(gui.getRows()).thenReturn(ROWS);
+        when(gui.getInventory()).thenReturn(slots.inventory);
+        doAnswer(call -> {
+            slots.inventory.setItem(call.getArgument(0), call.getArgument(1));
+            return null;
+        }).when(gui).updateItem(anyInt(), any(ItemStack.class));
+        return gui;
+    }
+
+    /**
+     * An inventory that keeps its contents and counts the slots written, a clear writes them all.
+     */
+    private static final class Slots {
+        final ItemStack[] contents = new ItemStack[ROWS * 9];
+        final Inventory inventory = mock(Inventory.class, withSettings().stubOnly());
+        long writes;
+
+        Slots() {
+            doAnswer(call -> {
+                contents[call.<Integer>getArgument(0)] = call.getArgument(1);
+                writes++;
+                return null;
+            }).when(inventory).setItem(anyInt(), any());
+            doAnswer(call -> contents[call.<Integer>getArgument(0)]).when(inventory).getItem(anyInt());
+            doAnswer(call -> {
+                Arrays.fill(contents, null);
+                writes += contents.length;
+                return null;
+            }).when(inventory).clear();
+        }
+    }
+    // endregion
+
+    /**
+     * The open path before {@link GuiPages}: the inventory is cleared, the fixed items are written
+     * again, the page is copied out of the item list and every item of it scans from the first slot
+     * for one that is free.
+     */
+    private static final class PopulatePage {
+        private final Slots slots;
+        private final Map<Integer, GuiItem> guiItems;
+        private final List<GuiItem> items;
+        private final Map<Integer, GuiItem> currentPage = new LinkedHashMap<>();
+        private final int pageSize;
+
+        PopulatePage(Slots slots, Map<Integer, GuiItem> guiItems, List<GuiItem> items, int pageSize) {
+            this.slots = slots;
+            this.guiItems = guiItems;
+            this.items = items;
+            this.pageSize = pageSize;
+        }
+
+        void page(int page) {
+            slots.inventory.clear();
+            currentPage.clear();
+            guiItems.forEach((slot, item) -> slots.inventory.setItem(slot, item.getItemStack()));
+
+            for (GuiItem item : this.pageItems(page)) {
+                for (int slot = 0; slot < ROWS * 9; slot++) {
+                    if (guiItems.get(slot) != null || slots.inventory.getItem(slot) != null) continue;
+                    currentPage.put(slot, item);
+                    slots.inventory.setItem(slot, item.getItemStack());
+                    break;
+                }
+            }
+        }
+
+        // PaginatedGui#getPageNum copies the page out of the item list
+        private List<GuiItem> pageItems(int page) {
+            int from = page * pageSize;
+            return new ArrayList<>(items.subList(from, Math.min(from + pageSize, items.size())));
+        }
+    }
+}
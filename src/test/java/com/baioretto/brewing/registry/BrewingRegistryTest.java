@@ -0,0 +1,21 @@
+package com.baioretto.brewing.registry;
+
+import com.baioretto.brewing.Container;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loads the registry classes the way unit tests and the plugin before enable do, with no plugin instance.
+ */
+class BrewingRegistryTest {
+    @Test
+    void loadsWithoutThePlugin() {
+        BrewingRegistry empty = assertDoesNotThrow(() -> BrewingRegistry.EMPTY);
+        assertSame(empty, Container.registry());
+        assertEquals(0, empty.recipeIndex().size());
+        assertEquals(ItemStamp.catalogVersion(List.of()), empty.catalogVersion());
+    }
+}
@@ -0,0 +1,221 @@
+package com.baioretto.brewing.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the wheel against a plain map of id - tick it has to expire at.
+ */
+class TimingWheelTest {
+    private static final long MAX_DELAY = (1L << 26) - 1L;
+    private static final long[] BOUNDARIES = {1L << 8, 1L << 14, 1L << 20, 1L << 26};
+
+    @Test
+    void expiresOnTheDeadlineAroundEveryCascadeBoundary() {
+        for (long start : new long[]{0L, 1L, 255L, 256L, (1L << 14) - 1L, 1L << 14, (1L << 20) - 1L, 1L << 20, MAX_DELAY, 1234567L}) {
+            Model model = new Model(start);
+            long last = start;
+            for (long boundary : BOUNDARIES) {
+                for (long delay : new long[]{boundary - 2L, boundary - 1L, boundary, boundary + 1L, boundary + 255L, boundary + 256L}) {
+                    model.schedule(start + delay);
+                    last = Math.max(last, start + delay);
+                }
+            }
+            // every expiry is checked against its tick, a late or early one fails in there
+            model.advance(last);
+            model.assertDone();
+        }
+    }
+
+    @Test
+    void expiresEveryTickInOrder() {
+        Model model = new Model(77L);
+        for (long deadline = 78L; deadline < 78L + (1L << 15); deadline++) model.schedule(deadline);
+
+        List<Long> fired = new ArrayList<>();
+        model.wheel.advance(78L + (1L << 15), value -> {
+            fired.add(model.wheel.now());
+            model.expire(value);
+        });
+        assertEquals(1 << 15, fired.size());
+        for (int i = 0; i < fired.size(); i++) assertEquals(78L + i, (long) fired.get(i));
+    }
+
+    @Test
+    void parksDeadlinesBeyondTheLastLevel() {
+        long start = 99L;
+        Model model = new Model(start);
+        long[] delays = {MAX_DELAY, MAX_DELAY + 1L, MAX_DELAY + 2L, (1L << 26) + 12345L, (1L << 27) - 1L, (1L << 27) + (1L << 20)};
+        for (long delay : delays) model.schedule(start + delay);
+
+        model.advance(start + (1L << 27) + (1L << 20));
+        model.assertDone();
+    }
+
+    @Test
+    void scheduledDeadlinesThatPassedExpireOnTheNextTick() {
+        Model model = new Model(1000L);
+        model.schedule(0L);
+        model.schedule(999L);
+        model.schedule(1000L);
+        model.advance(1001L);
+        model.assertDone();
+    }
+
+    @Test
+    void cancelsDuringAdvance() {
+        Model model = new Model(0L);
+        // pairs on the same tick and pairs a cascade apart, the first of every pair cancels the second
+        Map<Integer, Integer> victims = new HashMap<>();
+        for (long deadline : new long[]{5L, 256L, 300L, 16384L, 16385L, 1L << 20}) {
+            victims.put(model.schedule(deadline), model.schedule(deadline));
+            victims.put(model.schedule(deadline), model.schedule(deadline + 1L));
+        }
+
+        Set<Integer> cancelled = new HashSet<>();
+        model.wheel.advance((1L << 20) + 2L, value -> {
+            model.expire(value);
+            Integer victim = victims.get(value);
+            if (victim != null && model.cancel(victim)) cancelled.add(victim);
+            // cancelling what already fired does nothing
+            assertFalse(model.timeouts.get(value).cancel());
+        });
+        assertEquals(victims.size(), cancelled.size());
+        model.assertDone();
+    }
+
+    @Test
+    void reschedulesFromInsideTheAction() {
+        Model model = new Model(10L);
+        Random random = new Random(7L);
+        for (int i = 0; i < 64; i++) model.schedule(11L + random.nextInt(600));
+
+        long[] delays = {0L, 1L, 255L, 256L, 16383L, 16384L, 1L << 20, MAX_DELAY + 5L};
+        int[] rescheduled = {0};
+        while (!model.expected.isEmpty()) {
+            model.wheel.advance(model.wheel.now() + (1L << 22), value -> {
+                model.expire(value);
+                if (rescheduled[0] < 500) {
+                    rescheduled[0]++;
+                    // a deadline of now expires on the next tick, not in this one
+                    model.schedule(model.wheel.now() + delays[random.nextInt(delays.length)]);
+                }
+            });
+            model.assertPending();
+        }
+        assertEquals(500, rescheduled[0]);
+        model.assertDone();
+    }
+
+    @Test
+    void fuzz() {
+        for (long seed = 0L; seed < 16L; seed++) {
+            Random random = new Random(seed);
+            Model model = new Model(random.nextInt(1 << 22));
+            long end = model.wheel.now() + (1L << 24);
+            while (model.wheel.now() < end) {
+                for (int i = random.nextInt(16); i >= 0; i--) model.schedule(model.wheel.now() + delay(random));
+                if (!model.expected.isEmpty() && random.nextInt(4) == 0) {
+                    model.cancel(model.pending().get(random.nextInt(model.pending().size())));
+                }
+
+                long step = switch (random.nextInt(4)) {
+                    case 0 -> 1L;
+                    case 1 -> 1L + random.nextInt(256);
+                    case 2 -> 1L + random.nextInt(1 << 14);
+                    default -> 1L + random.nextInt(1 << 20);
+                };
+                model.wheel.advance(model.wheel.now() + step, value -> {
+                    model.expire(value);
+                    if (random.nextInt(8) == 0) model.schedule(model.wheel.now() + delay(random));
+                    if (random.nextInt(8) == 0 && !model.pending().isEmpty()) {
+                        model.cancel(model.pending().get(random.nextInt(model.pending().size())));
+                    }
+                });
+                model.assertPending();
+            }
+
+            model.clear();
+            assertEquals(0, model.wheel.size(), "seed " + seed);
+        }
+    }
+
+    // delays around the cascade boundaries, plus a few that have to be parked
+    private static long delay(Random random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> random.nextInt(256);
+            case 1, 2 -> Math.max(0L, BOUNDARIES[random.nextInt(3)] + random.nextInt(5) - 2L);
+            case 3 -> random.nextInt(1 << 14);
+            case 4 -> random.nextInt(1 << 21);
+            default -> MAX_DELAY + random.nextInt(1 << 20) - (1L << 19);
+        };
+    }
+
+    /**
+     * The wheel next to the ticks its timeouts have to expire at.
+     */
+    private static final class Model {
+        final TimingWheel<Integer> wheel;
+        final Map<Integer, TimingWheel.Timeout<Integer>> timeouts = new HashMap<>();
+        final Map<Integer, Long> expected = new HashMap<>();
+        final List<Integer> pending = new ArrayList<>();
+        int ids;
+
+        Model(long now) {
+            this.wheel = new TimingWheel<>(now);
+        }
+
+        int schedule(long deadline) {
+            int id = ids++;
+            TimingWheel.Timeout<Integer> timeout = wheel.schedule(deadline, id);
+            assertEquals(Math.max(deadline, wheel.now() + 1L), timeout.deadline());
+            timeouts.put(id, timeout);
+            expected.put(id, timeout.deadline());
+            return id;
+        }
+
+        boolean cancel(int id) {
+            boolean cancelled = timeouts.get(id).cancel();
+            assertEquals(expected.remove(id) != null, cancelled, "cancel of " + id);
+            return cancelled;
+        }
+
+        void expire(int id) {
+            Long deadline = expected.remove(id);
+            assertNotNull(deadline, "expired twice or after a cancel: " + id);
+            assertEquals((long) deadline, wheel.now(), "expiry of " + id);
+            assertFalse(timeouts.get(id).isPending());
+        }
+
+        void advance(long tick) {
+            wheel.advance(tick, this::expire);
+            this.assertPending();
+        }
+
+        List<Integer> pending() {
+            pending.clear();
+            pending.addAll(expected.keySet());
+            Collections.sort(pending);
+            return pending;
+        }
+
+        void clear() {
+            wheel.clear();
+            expected.keySet().forEach(id -> assertFalse(timeouts.get(id).isPending()));
+            expected.clear();
+        }
+
+        void assertPending() {
+            assertEquals(expected.size(), wheel.size());
+            expected.forEach((id, deadline) -> assertTrue(deadline > wheel.now(), "missed " + id + " at " + deadline));
+        }
+
+        void assertDone() {
+            assertTrue(expected.isEmpty(), "never expired: " + expected);
+            assertEquals(0, wheel.size());
+        }
+    }
+}